@@ -1,5 +1,6 @@
 package com.sd.demo.viewtracker;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -10,6 +11,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import com.sd.demo.viewtracker.databinding.ActivityMainBinding;
 import com.sd.lib.viewtracker.ViewTracker;
 import com.sd.lib.viewtracker.ViewTracker.Position;
+import com.sd.lib.viewtracker.applier.TranslationApplier;
 import com.sd.lib.viewtracker.ext.FPositionTracker;
 import com.sd.lib.viewtracker.updater.ViewUpdater;
 import com.sd.lib.viewtracker.updater.impl.OnPreDrawUpdater;
@@ -52,9 +54,10 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
                 @Override
                 public void onUpdate(int x, int y, @NonNull View source, @NonNull View target) {
                     Log.i(TAG, x + "," + y);
-                    source.layout(x, y, x + source.getMeasuredWidth(), y + source.getMeasuredHeight());
                 }
             });
+            // 设置位置应用对象，通过平移移动源view
+            mViewTracker.setPositionApplier(new TranslationApplier());
             // 设置源view
             mViewTracker.setSource(mBinding.viewSource);
             // 设置目标view
@@ -71,6 +74,8 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
         } else if (v == mBinding.btnStop) {
             // 停止追踪
             getViewTracker().stop();
+        } else if (v == mBinding.btnStress) {
+            startActivity(new Intent(this, StressActivity.class));
         }
 
         if (v == mBinding.btnTopLeft) {
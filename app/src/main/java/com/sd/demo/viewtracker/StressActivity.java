@@ -0,0 +1,257 @@
+package com.sd.demo.viewtracker;
+
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Debug;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.sd.lib.viewtracker.ViewTracker;
+import com.sd.lib.viewtracker.ext.FPositionTracker;
+import com.sd.lib.viewtracker.updater.ViewUpdater;
+import com.sd.lib.viewtracker.updater.impl.OnGlobalLayoutChangeUpdater;
+import com.sd.lib.viewtracker.updater.impl.OnLayoutChangeUpdater;
+import com.sd.lib.viewtracker.updater.impl.OnPreDrawUpdater;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 压力测试，构造指定数量和深度的追踪，逐帧移动目标，依次统计每种更新对象的开销
+ */
+public class StressActivity extends AppCompatActivity {
+    public static final String TAG = StressActivity.class.getSimpleName();
+
+    public static final String EXTRA_TRACKER_COUNT = "extra_tracker_count";
+    public static final String EXTRA_DEPTH = "extra_depth";
+    public static final String EXTRA_FRAME_COUNT = "extra_frame_count";
+
+    private static final String[] UPDATER_NAMES = {
+            OnLayoutChangeUpdater.class.getSimpleName(),
+            OnGlobalLayoutChangeUpdater.class.getSimpleName(),
+            OnPreDrawUpdater.class.getSimpleName(),
+    };
+
+    private int mTrackerCount;
+    private int mDepth;
+    private int mFrameCount;
+
+    private FrameLayout mOverlay;
+    private FrameLayout mMovingContainer;
+    private TextView mTextResult;
+
+    private final List<View> mListSource = new ArrayList<>();
+    private final List<View> mListTarget = new ArrayList<>();
+    private final List<FPositionTracker> mListTracker = new ArrayList<>();
+    private final StringBuilder mResult = new StringBuilder();
+
+    private int mUpdaterIndex;
+    private int mFrame;
+
+    private long mUpdateCount;
+    private long mCallbackCount;
+    /** 从帧开始到绘制之前的总耗时，包括布局和所有追踪的更新 */
+    private long mFrameNanos;
+    private long mFrameStartNanos;
+    private long mAllocBytes;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        mTrackerCount = getIntent().getIntExtra(EXTRA_TRACKER_COUNT, 100);
+        mDepth = getIntent().getIntExtra(EXTRA_DEPTH, 8);
+        mFrameCount = getIntent().getIntExtra(EXTRA_FRAME_COUNT, 120);
+
+        final FrameLayout root = new FrameLayout(this);
+        mMovingContainer = new FrameLayout(this);
+        root.addView(mMovingContainer, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        mOverlay = new FrameLayout(this);
+        root.addView(mOverlay, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        mTextResult = new TextView(this);
+        root.addView(mTextResult, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        setContentView(root);
+        root.getViewTreeObserver().addOnDrawListener(mOnDrawListener);
+
+        buildTargets();
+        startRound();
+    }
+
+    /**
+     * 构造指定深度的布局，每个叶子节点作为一个目标
+     */
+    private void buildTargets() {
+        for (int i = 0; i < mTrackerCount; i++) {
+            ViewGroup parent = mMovingContainer;
+            for (int d = 0; d < mDepth; d++) {
+                final FrameLayout child = new FrameLayout(this);
+                final FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+                params.leftMargin = (i % 10) * 8;
+                params.topMargin = (i / 10) * 8;
+                parent.addView(child, params);
+                parent = child;
+            }
+
+            final View target = new View(this);
+            parent.addView(target, new FrameLayout.LayoutParams(20, 20));
+
+            final View source = new View(this);
+            source.setBackgroundColor(0x33FF0000);
+            mOverlay.addView(source, new FrameLayout.LayoutParams(10, 10));
+
+            mListSource.add(source);
+            mListTarget.add(target);
+        }
+    }
+
+    private static ViewUpdater createUpdater(int index) {
+        switch (index) {
+            case 0:
+                return new OnLayoutChangeUpdater();
+            case 1:
+                return new OnGlobalLayoutChangeUpdater();
+            default:
+                return new OnPreDrawUpdater();
+        }
+    }
+
+    private void startRound() {
+        // 每一轮使用新的更新对象重新创建追踪对象
+        for (FPositionTracker item : mListTracker) {
+            item.stop();
+        }
+        mListTracker.clear();
+
+        for (int i = 0; i < mListSource.size(); i++) {
+            final FPositionTracker tracker = new FPositionTracker() {
+                @NonNull
+                @Override
+                protected ViewUpdater createTargetUpdater() {
+                    return createUpdater(mUpdaterIndex);
+                }
+            };
+            tracker.setCallback(mCallback);
+            tracker.setSource(mListSource.get(i));
+            tracker.setTarget(mListTarget.get(i));
+            tracker.start();
+            mListTracker.add(tracker);
+        }
+
+        mFrame = 0;
+        mUpdateCount = 0;
+        mCallbackCount = 0;
+        mFrameNanos = 0;
+        mFrameStartNanos = 0;
+
+        mAllocBytes = getAllocatedBytes();
+        Choreographer.getInstance().postFrameCallback(mFrameCallback);
+    }
+
+    private void finishRound() {
+        final long allocBytes = mAllocBytes < 0 ? -1 : getAllocatedBytes() - mAllocBytes;
+
+        final String line = UPDATER_NAMES[mUpdaterIndex]
+                + " trackers:" + mTrackerCount
+                + " depth:" + mDepth
+                + " frames:" + mFrameCount
+                + " update/frame:" + ((float) mUpdateCount / mFrameCount)
+                + " callback/frame:" + ((float) mCallbackCount / mFrameCount)
+                + " us/frame:" + (mFrameNanos / 1000 / mFrameCount)
+                + " alloc bytes:" + allocBytes;
+        Log.i(TAG, line);
+        mResult.append(line).append("\n");
+        mTextResult.setText(mResult);
+
+        mUpdaterIndex++;
+        if (mUpdaterIndex < UPDATER_NAMES.length) {
+            startRound();
+        } else {
+            for (FPositionTracker item : mListTracker) {
+                item.stop();
+            }
+        }
+    }
+
+    /**
+     * 进程累计分配的字节数，需要API 23以上，否则返回-1
+     */
+    private static long getAllocatedBytes() {
+        if (Build.VERSION.SDK_INT >= 23) {
+            final String value = Debug.getRuntimeStat("art.gc.bytes-allocated");
+            if (value != null) {
+                try {
+                    return Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private final ViewTreeObserver.OnDrawListener mOnDrawListener = new ViewTreeObserver.OnDrawListener() {
+        @Override
+        public void onDraw() {
+            // 绘制之前，布局和所有的预绘制更新都已经完成
+            if (mFrameStartNanos != 0) {
+                mFrameNanos += System.nanoTime() - mFrameStartNanos;
+                mFrameStartNanos = 0;
+            }
+        }
+    };
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (isFinishing()) {
+                return;
+            }
+
+            if (mFrame >= mFrameCount) {
+                finishRound();
+                return;
+            }
+
+            mFrameStartNanos = System.nanoTime();
+
+            // 每一帧移动目标的容器，触发布局
+            final FrameLayout.LayoutParams params = (FrameLayout.LayoutParams) mMovingContainer.getLayoutParams();
+            params.topMargin = mFrame % 2 == 0 ? 1 : 0;
+            mMovingContainer.setLayoutParams(params);
+
+            mFrame++;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    };
+
+    private final ViewTracker.Callback mCallback = new ViewTracker.Callback() {
+        @Override
+        public boolean canUpdate(@NonNull View source, @NonNull View target) {
+            mUpdateCount++;
+            return true;
+        }
+
+        @Override
+        public void onUpdate(int x, int y, @NonNull View source, @NonNull View target) {
+            mCallbackCount++;
+        }
+    };
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+        for (FPositionTracker item : mListTracker) {
+            item.stop();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.sd.lib.viewtracker.benchmark;
+
+import com.sd.lib.viewtracker.core.Anchor;
+import com.sd.lib.viewtracker.core.TrackerGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个位置计算一次的吞吐量，和一批tracker各自计算一次的吞吐量
+ * <p>
+ * anchor参数和ViewTracker.Position一一对应
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class GeometryBenchmark {
+    @Param({
+            "TOP_LEFT", "TOP_CENTER", "TOP_RIGHT",
+            "LEFT_CENTER", "CENTER", "RIGHT_CENTER",
+            "BOTTOM_LEFT", "BOTTOM_CENTER", "BOTTOM_RIGHT",
+            "LEFT", "TOP", "RIGHT", "BOTTOM"
+    })
+    public String anchor;
+
+    @Param({"1", "16", "256"})
+    public int batch;
+
+    private Anchor mAnchor;
+
+    private int[][] mTargets;
+    private int[][] mSources;
+    private final int[] mOut = {0, 0};
+
+    @Setup
+    public void setup() throws Exception {
+        mAnchor = (Anchor) TrackerGeometry.class.getField(anchor).get(null);
+
+        mTargets = new int[batch][];
+        mSources = new int[batch][];
+        for (int i = 0; i < batch; i++) {
+            mTargets[i] = new int[]{i * 7, i * 13, 100 + i % 50, 40 + i % 30};
+            mSources[i] = new int[]{i * 3, i * 5, 60 + i % 20, 20 + i % 10};
+        }
+    }
+
+    /**
+     * 单个tracker计算一次
+     */
+    @Benchmark
+    public void single(Blackhole blackhole) {
+        TrackerGeometry.compute(mAnchor, mTargets[0], mSources[0], mOut);
+        blackhole.consume(mOut[0]);
+        blackhole.consume(mOut[1]);
+    }
+
+    /**
+     * 一批tracker各自计算一次，模拟同一帧内所有tracker的更新
+     */
+    @Benchmark
+    public void batch(Blackhole blackhole) {
+        final Anchor anchor = mAnchor;
+        final int[] out = mOut;
+        for (int i = 0; i < batch; i++) {
+            TrackerGeometry.compute(anchor, mTargets[i], mSources[i], out);
+            blackhole.consume(out[0]);
+            blackhole.consume(out[1]);
+        }
+    }
+}
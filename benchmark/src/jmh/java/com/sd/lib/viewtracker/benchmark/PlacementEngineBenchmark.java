@@ -0,0 +1,60 @@
+package com.sd.lib.viewtracker.benchmark;
+
+import com.sd.lib.viewtracker.core.PlacementEngine;
+import com.sd.lib.viewtracker.core.PlacementSnapshot;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一批tracker的防重叠布局，分别测试只有一个矩形变化（增量）和每次都重新计算（全量）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PlacementEngineBenchmark {
+    @Param({"16", "128", "512"})
+    public int trackers;
+
+    private final PlacementEngine mEngine = new PlacementEngine();
+    private final PlacementSnapshot mSnapshot = new PlacementSnapshot();
+    private int mFrame;
+
+    @Setup
+    public void setup() {
+        mSnapshot.setCount(trackers);
+        for (int i = 0; i < trackers; i++) {
+            mSnapshot.set(i, (i % 16) * 60, (i / 16) * 40, 80, 30);
+        }
+        mEngine.reset();
+        mEngine.resolve(mSnapshot);
+    }
+
+    /**
+     * 最后一个矩形来回移动
+     */
+    @Benchmark
+    public int moveLast() {
+        final int index = trackers - 1;
+        final int delta = (mFrame++ & 1) * 5;
+        mSnapshot.set(index, (index % 16) * 60 + delta, (index / 16) * 40, 80, 30);
+        return mEngine.resolve(mSnapshot);
+    }
+
+    /**
+     * 每次都丢弃上一次的结果重新计算
+     */
+    @Benchmark
+    public int full() {
+        mEngine.reset();
+        return mEngine.resolve(mSnapshot);
+    }
+}
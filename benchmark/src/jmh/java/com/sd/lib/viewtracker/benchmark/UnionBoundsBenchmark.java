@@ -0,0 +1,57 @@
+package com.sd.lib.viewtracker.benchmark;
+
+import com.sd.lib.viewtracker.core.UnionBounds;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多target并集的更新，分别测试内部矩形移动（增量）和边界矩形收缩（全量）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class UnionBoundsBenchmark {
+    @Param({"4", "64", "512"})
+    public int targets;
+
+    private final UnionBounds mBounds = new UnionBounds();
+    private int mFrame;
+
+    @Setup
+    public void setup() {
+        mBounds.clear();
+        for (int i = 0; i < targets; i++) {
+            final int index = mBounds.add();
+            mBounds.set(index, 100 + i, 100 + i, 200 + i, 200 + i);
+        }
+    }
+
+    /**
+     * 中间的矩形来回移动，不影响并集的边界
+     */
+    @Benchmark
+    public boolean moveInner() {
+        final int index = targets / 2;
+        final int delta = (mFrame++ & 1);
+        return mBounds.set(index, 100 + index + delta, 100 + index, 200 + index + delta, 200 + index);
+    }
+
+    /**
+     * 最右边的矩形来回收缩，每两次触发一次全量计算
+     */
+    @Benchmark
+    public boolean shrinkEdge() {
+        final int index = targets - 1;
+        final int delta = (mFrame++ & 1) * 10;
+        return mBounds.set(index, 100 + index, 100 + index, 200 + index - delta, 200 + index);
+    }
+}
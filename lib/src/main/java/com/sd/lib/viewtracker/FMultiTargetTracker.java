@@ -0,0 +1,361 @@
+package com.sd.lib.viewtracker;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewParent;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sd.lib.viewtracker.applier.PositionApplier;
+import com.sd.lib.viewtracker.core.Anchor;
+import com.sd.lib.viewtracker.core.UnionBounds;
+import com.sd.lib.viewtracker.location.OffsetResolver;
+import com.sd.lib.viewtracker.location.ReleasableOffsetResolver;
+import com.sd.lib.viewtracker.location.ScreenOffsetResolver;
+import com.sd.lib.viewtracker.utils.ViewUtils;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 追踪多个目标view的并集矩形
+ * <p>
+ * 每个目标view的矩形单独保存，{@link #updateTarget(View)}只重新计算触发变化的目标view，
+ * 只有这个目标view原来位于并集的边界并且往里收缩的时候，才重新遍历所有目标view计算并集。
+ * 并集矩形按照{@link ViewTracker.Position}或者{@link Anchor}对齐计算源view的位置
+ */
+public class FMultiTargetTracker {
+    private WeakReference<View> mSource;
+    private final List<WeakReference<View>> mTargets = new ArrayList<>();
+    private final UnionBounds mBounds = new UnionBounds();
+
+    private final int[] mOffset = new int[2];
+    private OffsetResolver mOffsetResolver;
+
+    private Anchor mAnchor = FViewTracker.getAnchor(ViewTracker.Position.TopRight);
+    private Callback mCallback;
+    private PositionApplier mPositionApplier;
+
+    private final Rect mUnionRect = new Rect();
+    private int mX;
+    private int mY;
+
+    private boolean mHasLastResult;
+    private int mLastX;
+    private int mLastY;
+
+    /**
+     * 设置回调对象
+     */
+    public void setCallback(@Nullable Callback callback) {
+        mCallback = callback;
+        mHasLastResult = false;
+    }
+
+    /**
+     * 设置位置应用对象，设置后每次更新成功会先把结果应用到源view，再回调{@link Callback#onUpdate(int, int, View, Rect)}
+     */
+    public void setPositionApplier(@Nullable PositionApplier applier) {
+        mPositionApplier = applier;
+        mHasLastResult = false;
+    }
+
+    /**
+     * 设置偏移计算对象，null-使用默认的{@link ScreenOffsetResolver}，旧的对象如果是{@link ReleasableOffsetResolver}会被释放
+     */
+    public void setOffsetResolver(@Nullable OffsetResolver resolver) {
+        final OffsetResolver old = mOffsetResolver;
+        if (old != resolver) {
+            mOffsetResolver = resolver;
+            if (old instanceof ReleasableOffsetResolver) {
+                ((ReleasableOffsetResolver) old).release();
+            }
+        }
+    }
+
+    /**
+     * 返回偏移计算对象
+     */
+    @NonNull
+    public OffsetResolver getOffsetResolver() {
+        if (mOffsetResolver == null) {
+            mOffsetResolver = new ScreenOffsetResolver();
+        }
+        return mOffsetResolver;
+    }
+
+    /**
+     * 设置源view
+     */
+    public void setSource(@Nullable View source) {
+        if (getSource() != source) {
+            mSource = source == null ? null : new WeakReference<>(source);
+            // 偏移相对于源view的父布局，源view变化后所有目标view都要重新计算
+            mBounds.setAllEmpty();
+            mHasLastResult = false;
+        }
+    }
+
+    @Nullable
+    public View getSource() {
+        return mSource == null ? null : mSource.get();
+    }
+
+    /**
+     * 添加目标view
+     *
+     * @return true-添加成功，false-已经添加过了
+     */
+    public boolean addTarget(@NonNull View target) {
+        if (indexOfTarget(target) >= 0) {
+            return false;
+        }
+        mTargets.add(new WeakReference<>(target));
+        mBounds.add();
+        return true;
+    }
+
+    /**
+     * 移除目标view
+     *
+     * @return true-移除成功
+     */
+    public boolean removeTarget(@Nullable View target) {
+        final int index = indexOfTarget(target);
+        if (index < 0) {
+            return false;
+        }
+        removeTargetAt(index);
+        return true;
+    }
+
+    /**
+     * 移除所有目标view
+     */
+    public void clearTargets() {
+        mTargets.clear();
+        mBounds.clear();
+        mHasLastResult = false;
+    }
+
+    /**
+     * 返回目标view的数量
+     */
+    public int getTargetCount() {
+        return mTargets.size();
+    }
+
+    /**
+     * 返回指定位置的目标view
+     */
+    @Nullable
+    public View getTarget(int index) {
+        return mTargets.get(index).get();
+    }
+
+    /**
+     * 设置要追踪的位置
+     */
+    public void setPosition(@NonNull ViewTracker.Position position) {
+        setAnchor(FViewTracker.getAnchor(position));
+    }
+
+    /**
+     * 设置要追踪的锚点
+     */
+    public void setAnchor(@NonNull Anchor anchor) {
+        if (mAnchor != anchor) {
+            mAnchor = anchor;
+            mHasLastResult = false;
+        }
+    }
+
+    /**
+     * 返回最近一次计算的并集矩形，相对于源view的父布局
+     */
+    @NonNull
+    public Rect getUnionRect() {
+        return mUnionRect;
+    }
+
+    /**
+     * 返回遍历所有目标view重新计算并集的次数
+     */
+    public long getFullRecomputeCount() {
+        return mBounds.getFullCount();
+    }
+
+    /**
+     * 重新计算所有目标view，一定会回调{@link Callback#onUpdate(int, int, View, Rect)}
+     *
+     * @return true-此次更新成功
+     */
+    public boolean update() {
+        final View parent = prepare();
+        if (parent == null) {
+            return false;
+        }
+
+        for (int i = mTargets.size() - 1; i >= 0; i--) {
+            final View target = mTargets.get(i).get();
+            if (target == null) {
+                removeTargetAt(i);
+                continue;
+            }
+            resolveTarget(parent, target, i);
+        }
+        return dispatch(true);
+    }
+
+    /**
+     * 只重新计算触发变化的目标view，如果计算出来的位置和并集都没有变化，则不回调
+     *
+     * @return true-此次更新成功
+     */
+    public boolean updateTarget(@NonNull View target) {
+        final int index = indexOfTarget(target);
+        if (index < 0) {
+            return false;
+        }
+
+        final View parent = prepare();
+        if (parent == null) {
+            return false;
+        }
+
+        final boolean changed = resolveTarget(parent, target, index);
+        return dispatch(changed || !mHasLastResult);
+    }
+
+    /**
+     * 重新用缓存的并集矩形计算源view的位置，用于源view的大小发生变化的时候
+     *
+     * @return true-此次更新成功
+     */
+    public boolean updateSource() {
+        if (prepare() == null) {
+            return false;
+        }
+        return dispatch(!mHasLastResult);
+    }
+
+    @Nullable
+    private View prepare() {
+        if (mCallback == null && mPositionApplier == null) {
+            return null;
+        }
+
+        final View source = getSource();
+        if (source == null || mTargets.isEmpty()) {
+            return null;
+        }
+
+        if (mCallback != null && !mCallback.canUpdate(source)) {
+            return null;
+        }
+
+        final ViewParent parent = source.getParent();
+        if (!(parent instanceof View)) {
+            return null;
+        }
+
+        if (!ViewUtils.isAttached(source)) {
+            return null;
+        }
+        return (View) parent;
+    }
+
+    /**
+     * 计算指定目标view的矩形
+     *
+     * @return true-并集发生了变化
+     */
+    private boolean resolveTarget(View parent, View target, int index) {
+        if (!ViewUtils.isAttached(target)
+                || target.getVisibility() == View.GONE
+                || !getOffsetResolver().resolve(parent, target, mOffset)) {
+            return mBounds.setEmpty(index);
+        }
+
+        final int left = mOffset[0];
+        final int top = mOffset[1];
+        return mBounds.set(index, left, top, left + target.getWidth(), top + target.getHeight());
+    }
+
+    private boolean dispatch(boolean unionChanged) {
+        final UnionBounds bounds = mBounds;
+        if (bounds.isEmpty()) {
+            return false;
+        }
+
+        final View source = getSource();
+        if (source == null || source.getWidth() <= 0 || source.getHeight() <= 0) {
+            return false;
+        }
+
+        final int left = bounds.getLeft();
+        final int top = bounds.getTop();
+        mX = mAnchor.computeX(left, bounds.getRight() - left, source.getWidth(), source.getLeft());
+        mY = mAnchor.computeY(top, bounds.getBottom() - top, source.getHeight(), source.getTop());
+
+        if (!unionChanged && mHasLastResult && mLastX == mX && mLastY == mY) {
+            return true;
+        }
+
+        mHasLastResult = true;
+        mLastX = mX;
+        mLastY = mY;
+        mUnionRect.set(left, top, bounds.getRight(), bounds.getBottom());
+
+        if (mPositionApplier != null) {
+            mPositionApplier.apply(mX, mY, source);
+        }
+        if (mCallback != null) {
+            mCallback.onUpdate(mX, mY, source, mUnionRect);
+        }
+        return true;
+    }
+
+    private void removeTargetAt(int index) {
+        // 和UnionBounds一样，把最后一个移动到这个位置
+        final int last = mTargets.size() - 1;
+        mTargets.set(index, mTargets.get(last));
+        mTargets.remove(last);
+        mBounds.remove(index);
+    }
+
+    private int indexOfTarget(View target) {
+        if (target == null) {
+            return -1;
+        }
+        for (int i = 0; i < mTargets.size(); i++) {
+            if (mTargets.get(i).get() == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public abstract static class Callback {
+        /**
+         * 是否需要更新
+         *
+         * @return true-需要更新
+         */
+        public boolean canUpdate(@NonNull View source) {
+            return true;
+        }
+
+        /**
+         * 源view相对于父布局的位置
+         *
+         * @param x      x值
+         * @param y      y值
+         * @param source 源view
+         * @param union  所有目标view的并集矩形，相对于源view的父布局，不要保存这个对象
+         */
+        public abstract void onUpdate(int x, int y, @NonNull View source, @NonNull Rect union);
+    }
+}
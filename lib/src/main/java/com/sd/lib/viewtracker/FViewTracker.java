@@ -1,33 +1,370 @@
 package com.sd.lib.viewtracker;
 
-import android.os.Build;
+import android.graphics.Rect;
+import android.view.Choreographer;
 import android.view.View;
 import android.view.ViewParent;
+import android.view.animation.AnimationUtils;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.sd.lib.viewtracker.applier.PositionApplier;
+import com.sd.lib.viewtracker.core.Anchor;
+import com.sd.lib.viewtracker.core.MotionPredictor;
+import com.sd.lib.viewtracker.core.TrackerGeometry;
+import com.sd.lib.viewtracker.location.CommonAncestorOffsetResolver;
+import com.sd.lib.viewtracker.location.OffsetResolver;
+import com.sd.lib.viewtracker.location.ReleasableOffsetResolver;
+import com.sd.lib.viewtracker.location.ScreenOffsetResolver;
+import com.sd.lib.viewtracker.metrics.TrackerMetrics;
+import com.sd.lib.viewtracker.multicast.PositionMulticaster;
+import com.sd.lib.viewtracker.multicast.PositionSubscriber;
+import com.sd.lib.viewtracker.multicast.Subscription;
+import com.sd.lib.viewtracker.trace.TraceFormat;
+import com.sd.lib.viewtracker.trace.TraceRecorder;
+import com.sd.lib.viewtracker.utils.ViewUtils;
+
 import java.lang.ref.WeakReference;
 
 /**
  * view的位置追踪
  */
 public class FViewTracker implements ViewTracker {
+    /** {@link Position}对应的锚点，按{@link Position#ordinal()}索引 */
+    private static final Anchor[] POSITION_ANCHORS = new Anchor[Position.values().length];
+
+    static {
+        POSITION_ANCHORS[Position.TopLeft.ordinal()] = TrackerGeometry.TOP_LEFT;
+        POSITION_ANCHORS[Position.TopCenter.ordinal()] = TrackerGeometry.TOP_CENTER;
+        POSITION_ANCHORS[Position.TopRight.ordinal()] = TrackerGeometry.TOP_RIGHT;
+
+        POSITION_ANCHORS[Position.LeftCenter.ordinal()] = TrackerGeometry.LEFT_CENTER;
+        POSITION_ANCHORS[Position.Center.ordinal()] = TrackerGeometry.CENTER;
+        POSITION_ANCHORS[Position.RightCenter.ordinal()] = TrackerGeometry.RIGHT_CENTER;
+
+        POSITION_ANCHORS[Position.BottomLeft.ordinal()] = TrackerGeometry.BOTTOM_LEFT;
+        POSITION_ANCHORS[Position.BottomCenter.ordinal()] = TrackerGeometry.BOTTOM_CENTER;
+        POSITION_ANCHORS[Position.BottomRight.ordinal()] = TrackerGeometry.BOTTOM_RIGHT;
+
+        POSITION_ANCHORS[Position.Left.ordinal()] = TrackerGeometry.LEFT;
+        POSITION_ANCHORS[Position.Top.ordinal()] = TrackerGeometry.TOP;
+        POSITION_ANCHORS[Position.Right.ordinal()] = TrackerGeometry.RIGHT;
+        POSITION_ANCHORS[Position.Bottom.ordinal()] = TrackerGeometry.BOTTOM;
+    }
+
+    /**
+     * 返回{@link Position}对应的锚点
+     */
+    @NonNull
+    public static Anchor getAnchor(@NonNull Position position) {
+        return POSITION_ANCHORS[position.ordinal()];
+    }
+
     private WeakReference<View> mSource;
     private WeakReference<View> mTarget;
 
-    private final int[] mLocationSourceParent = {0, 0};
-    private final int[] mLocationTarget = {0, 0};
+    /** target左上角相对于source父布局左上角的偏移 */
+    private final int[] mOffset = {0, 0};
+    private OffsetResolver mOffsetResolver;
+
+    /** 滚动更新使用的偏移计算对象 */
+    private CommonAncestorOffsetResolver mScrollResolver;
+    private final int[] mScrollBase = {0, 0};
+    private final int[] mScrollOffset = {0, 0};
+    private boolean mScrollBaseValid;
+    private Anchor mScrollBaseAnchor;
+    private int mScrollBaseTargetWidth;
+    private int mScrollBaseTargetHeight;
+    private int mScrollBaseSourceWidth;
+    private int mScrollBaseSourceHeight;
 
     private int mX;
     private int mY;
-    private Position mPosition = Position.TopRight;
+    private Anchor mAnchor = getAnchor(Position.TopRight);
 
     private Callback mCallback;
+    private PositionApplier mPositionApplier;
+    private TrackerMetrics mMetrics;
+
+    /** 是否开启不可见时暂停追踪 */
+    private boolean mCullingEnabled;
+    /** 最近一次更新是否因为不可见被拒绝 */
+    private boolean mIsCulled;
+    private final Rect mCullRect = new Rect();
+    private boolean mHasCullResult;
+    private long mCullDrawingTime;
+    private boolean mCullTargetVisible;
+
+    /** 是否开启变化检测 */
+    private boolean mChangeDetectionEnabled;
+    /** 是否有上一次回调的结果 */
+    private boolean mHasLastResult;
+    private int mLastX;
+    private int mLastY;
+    private int mLastTargetX;
+    private int mLastTargetY;
+    private int mLastTargetWidth;
+    private int mLastTargetHeight;
+    private int mLastSourceWidth;
+    private int mLastSourceHeight;
+    /** 源view当前的位置，父布局重新布局会把源view放回布局的位置，需要重新追踪 */
+    private int mLastSourceLeft;
+    private int mLastSourceTop;
+    /** 设置了位置应用对象时，源view当前的平移值 */
+    private float mLastSourceTranslationX;
+    private float mLastSourceTranslationY;
+    private Anchor mLastAnchor;
+    /** 追踪记录 */
+    private TraceRecorder mTraceRecorder;
+    private int mTraceId;
+    private int mTraceTrigger = TraceFormat.TRIGGER_MANUAL;
+    private int mTraceKind;
+
+    /** 位置订阅 */
+    private PositionMulticaster mMulticaster;
+
+    /** 位置预测对象 */
+    private MotionPredictor mPredictor;
+    private final int[] mPredictDelta = {0, 0};
+    /** 是否已经注册了下一帧的校正 */
+    private boolean mCorrectionPosted;
+    /** 最终输出的位置，开启预测的时候包含预测的位移 */
+    private int mOutX;
+    private int mOutY;
+
+    /** 因为位置未变化而跳过回调的次数 */
+    private long mSuppressedCount;
+    /** 回调{@link Callback#onUpdate(int, int, View, View)}的次数 */
+    private long mEmittedCount;
 
     @Override
     public void setCallback(@Nullable Callback callback) {
         mCallback = callback;
+        resetLastResult();
+    }
+
+    /**
+     * 设置是否开启不可见时暂停追踪，默认false
+     * <p>
+     * 开启后，如果源view不是{@link View#VISIBLE}，或者目标view不是{@link View#VISIBLE}或者完全在可见区域之外，
+     * 则不计算位置，{@link #isCulled()}返回true。目标view的可见区域每帧最多检查一次
+     */
+    public void setCullingEnabled(boolean enabled) {
+        mCullingEnabled = enabled;
+        mIsCulled = false;
+        mHasCullResult = false;
+    }
+
+    /**
+     * 最近一次更新是否因为不可见被拒绝
+     */
+    public boolean isCulled() {
+        return mIsCulled;
+    }
+
+    /**
+     * 清除本帧缓存的可见区域检查结果，下一次更新重新检查
+     */
+    public void invalidateCulling() {
+        mHasCullResult = false;
+    }
+
+    /**
+     * 设置统计对象，null-不统计
+     */
+    public void setMetrics(@Nullable TrackerMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    /**
+     * 返回统计对象
+     */
+    @Nullable
+    public TrackerMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 设置位置应用对象，设置后每次更新成功会先把结果应用到源view，再回调{@link Callback#onUpdate(int, int, View, View)}
+     * <p>
+     * 如果设置了位置应用对象，没有设置回调对象也可以更新
+     */
+    public void setPositionApplier(@Nullable PositionApplier applier) {
+        mPositionApplier = applier;
+        resetLastResult();
+    }
+
+    /**
+     * 返回位置应用对象
+     */
+    @Nullable
+    public PositionApplier getPositionApplier() {
+        return mPositionApplier;
+    }
+
+    /**
+     * 设置偏移计算对象，null-使用默认的{@link ScreenOffsetResolver}
+     * <p>
+     * 如果旧的对象是{@link ReleasableOffsetResolver}，会调用{@link ReleasableOffsetResolver#release()}移除它添加的监听
+     */
+    public void setOffsetResolver(@Nullable OffsetResolver resolver) {
+        final OffsetResolver old = mOffsetResolver;
+        if (old != resolver) {
+            mOffsetResolver = resolver;
+            if (old instanceof ReleasableOffsetResolver) {
+                ((ReleasableOffsetResolver) old).release();
+            }
+        }
+    }
+
+    /**
+     * 返回偏移计算对象
+     */
+    @NonNull
+    public OffsetResolver getOffsetResolver() {
+        if (mOffsetResolver == null) {
+            mOffsetResolver = new ScreenOffsetResolver();
+        }
+        return mOffsetResolver;
+    }
+
+    /**
+     * 使偏移计算对象缓存的信息失效
+     */
+    public void invalidateOffset() {
+        if (mOffsetResolver != null) {
+            mOffsetResolver.invalidate();
+        }
+    }
+
+    /**
+     * 设置是否开启变化检测，默认false
+     * <p>
+     * 开启后，如果计算出来的位置和上一次回调的相同，并且源view当前的位置（设置了位置应用对象时还包括平移值）
+     * 和上一次回调之后的相同，则不会触发{@link Callback#onUpdate(int, int, View, View)}
+     */
+    public void setChangeDetectionEnabled(boolean enabled) {
+        if (mChangeDetectionEnabled != enabled) {
+            mChangeDetectionEnabled = enabled;
+            resetLastResult();
+        }
+    }
+
+    /**
+     * 是否开启了变化检测
+     */
+    public boolean isChangeDetectionEnabled() {
+        return mChangeDetectionEnabled;
+    }
+
+    /**
+     * 返回回调{@link Callback#onUpdate(int, int, View, View)}的次数
+     */
+    public long getEmittedUpdateCount() {
+        return mEmittedCount;
+    }
+
+    /**
+     * 返回因为位置未变化而跳过回调的次数
+     */
+    public long getSuppressedUpdateCount() {
+        return mSuppressedCount;
+    }
+
+    /**
+     * 设置追踪记录器，null-不记录，每次更新的结果都会写入记录器
+     *
+     * @param trackerId 写入记录的追踪对象标识，用来区分多个追踪对象
+     */
+    public void setTraceRecorder(@Nullable TraceRecorder recorder, int trackerId) {
+        mTraceRecorder = recorder;
+        mTraceId = trackerId;
+    }
+
+    /**
+     * 设置下一次更新的触发来源，写入追踪记录，更新之后恢复为{@link TraceFormat#TRIGGER_MANUAL}
+     *
+     * @param trigger 例如{@link TraceFormat#TRIGGER_SOURCE}
+     */
+    public void setTraceTrigger(int trigger) {
+        mTraceTrigger = trigger;
+    }
+
+    /**
+     * 订阅位置，每次回调{@link Callback#onUpdate(int, int, View, View)}之后按照订阅的策略发送给订阅者
+     * <p>
+     * 有订阅者的时候，没有设置回调对象也可以更新
+     *
+     * @param policy {@link PositionMulticaster#POLICY_SYNC}或者{@link PositionMulticaster#POLICY_CONFLATED}
+     */
+    @NonNull
+    public Subscription subscribe(@NonNull PositionSubscriber subscriber, int policy) {
+        return getMulticaster().subscribe(subscriber, policy);
+    }
+
+    /**
+     * 按照指定的间隔采样订阅位置
+     *
+     * @see PositionMulticaster#subscribeSampled(PositionSubscriber, long)
+     */
+    @NonNull
+    public Subscription subscribeSampled(@NonNull PositionSubscriber subscriber, long intervalMillis) {
+        return getMulticaster().subscribeSampled(subscriber, intervalMillis);
+    }
+
+    /**
+     * 取消所有订阅
+     */
+    public void clearSubscriptions() {
+        if (mMulticaster != null) {
+            mMulticaster.clear();
+        }
+    }
+
+    @NonNull
+    private PositionMulticaster getMulticaster() {
+        if (mMulticaster == null) {
+            mMulticaster = new PositionMulticaster();
+        }
+        return mMulticaster;
+    }
+
+    /**
+     * 设置位置预测对象，null-不预测，默认null
+     * <p>
+     * 开启后每次更新记录目标view的位置和时间并估算速度，输出按照速度外推到下一帧的位置，
+     * 有预测位移的时候会在下一帧再更新一次，用真实的位置校正，目标view停止后输出真实的位置
+     *
+     * @see MotionPredictor#setMaxOvershoot(int)
+     */
+    public void setPredictor(@Nullable MotionPredictor predictor) {
+        if (mPredictor != predictor) {
+            resetPrediction();
+            mPredictor = predictor;
+            resetLastResult();
+        }
+    }
+
+    /**
+     * 返回位置预测对象
+     */
+    @Nullable
+    public MotionPredictor getPredictor() {
+        return mPredictor;
+    }
+
+    /**
+     * 清空预测的样本，并取消下一帧的校正
+     */
+    public void resetPrediction() {
+        if (mPredictor != null) {
+            mPredictor.reset();
+        }
+        if (mCorrectionPosted) {
+            mCorrectionPosted = false;
+            Choreographer.getInstance().removeFrameCallback(mCorrectionCallback);
+        }
     }
 
     @Override
@@ -35,6 +372,7 @@ public class FViewTracker implements ViewTracker {
         final View old = getSource();
         if (old != source) {
             mSource = source == null ? null : new WeakReference<>(source);
+            resetLastResult();
             if (mCallback != null) {
                 mCallback.onSourceChanged(old, source);
             }
@@ -46,6 +384,8 @@ public class FViewTracker implements ViewTracker {
         final View old = getTarget();
         if (old != target) {
             mTarget = target == null ? null : new WeakReference<>(target);
+            mHasCullResult = false;
+            resetLastResult();
             if (mCallback != null) {
                 mCallback.onTargetChanged(old, target);
             }
@@ -54,7 +394,17 @@ public class FViewTracker implements ViewTracker {
 
     @Override
     public void setPosition(@NonNull Position position) {
-        mPosition = position;
+        setAnchor(getAnchor(position));
+    }
+
+    /**
+     * 设置要追踪的锚点{@link Anchor}，可以指定任意比例的对齐位置和像素偏移，会覆盖{@link #setPosition(Position)}的设置
+     */
+    public void setAnchor(@NonNull Anchor anchor) {
+        if (mAnchor != anchor) {
+            mAnchor = anchor;
+            resetLastResult();
+        }
     }
 
     @Nullable
@@ -71,191 +421,296 @@ public class FViewTracker implements ViewTracker {
 
     @Override
     public final boolean update() {
+        return updateInternal(false, false);
+    }
+
+    /**
+     * 只有滚动变化的时候触发更新
+     * <p>
+     * 如果source，target的大小和追踪位置和上一次相同，只沿着source父布局和target到它们公共祖先布局的分支重新计算偏移，
+     * 把上一次的结果平移滚动的距离，否则执行完整的更新
+     *
+     * @return true-此次更新成功
+     */
+    public final boolean updateScroll() {
+        return updateInternal(false, true);
+    }
+
+    /**
+     * 触发一次追踪信息更新，忽略变化检测，一定会回调{@link Callback#onUpdate(int, int, View, View)}
+     *
+     * @return true-此次更新成功
+     */
+    public final boolean forceUpdate() {
+        mHasCullResult = false;
+        return updateInternal(true, false);
+    }
+
+    private boolean updateInternal(boolean force, boolean scroll) {
+        mIsCulled = false;
+        mTraceKind = force ? TraceFormat.KIND_FORCE : (scroll ? TraceFormat.KIND_SCROLL : TraceFormat.KIND_UPDATE);
+
         final Callback callback = mCallback;
-        if (callback == null) {
-            return false;
+        final PositionApplier applier = mPositionApplier;
+        final PositionMulticaster multicaster = mMulticaster;
+        if (callback == null && applier == null
+                && (multicaster == null || !multicaster.hasSubscribers())) {
+            return reject(TrackerMetrics.REJECT_NO_CALLBACK);
         }
 
         final View source = getSource();
         final View target = getTarget();
         if (source == null || target == null) {
-            return false;
+            return reject(TrackerMetrics.REJECT_NO_VIEW);
         }
 
-        if (!callback.canUpdate(source, target)) {
-            return false;
+        if (callback != null && !callback.canUpdate(source, target)) {
+            return reject(TrackerMetrics.REJECT_CAN_UPDATE);
         }
 
         final ViewParent parent = source.getParent();
         if (!(parent instanceof View)) {
-            return false;
+            return reject(TrackerMetrics.REJECT_NO_PARENT);
         }
 
-        if (!isViewAttached(source) || !isViewAttached(target)) {
-            return false;
+        if (!ViewUtils.isAttached(source) || !ViewUtils.isAttached(target)) {
+            return reject(TrackerMetrics.REJECT_DETACHED);
+        }
+
+        if (mCullingEnabled) {
+            mIsCulled = checkCulled(source, target);
+            if (mIsCulled) {
+                return reject(TrackerMetrics.REJECT_CULLED);
+            }
         }
 
         if (source.getWidth() <= 0 || source.getHeight() <= 0) {
-            return false;
-        }
-
-        ((View) parent).getLocationOnScreen(mLocationSourceParent);
-        target.getLocationOnScreen(mLocationTarget);
-
-        switch (mPosition) {
-            case TopLeft:
-                layoutTopLeft(source, target);
-                break;
-            case TopCenter:
-                layoutTopCenter(source, target);
-                break;
-            case TopRight:
-                layoutTopRight(source, target);
-                break;
-
-            case LeftCenter:
-                layoutLeftCenter(source, target);
-                break;
-            case Center:
-                layoutCenter(source, target);
-                break;
-            case RightCenter:
-                layoutRightCenter(source, target);
-                break;
-
-            case BottomLeft:
-                layoutBottomLeft(source, target);
-                break;
-            case BottomCenter:
-                layoutBottomCenter(source, target);
-                break;
-            case BottomRight:
-                layoutBottomRight(source, target);
-                break;
-
-            case Left:
-                layoutLeft(source, target);
-                break;
-            case Top:
-                layoutTop(source, target);
-                break;
-            case Right:
-                layoutRight(source, target);
-                break;
-            case Bottom:
-                layoutBottom(source, target);
-                break;
-        }
-
-        callback.onUpdate(mX, mY, source, target);
-        return true;
-    }
+            return reject(TrackerMetrics.REJECT_EMPTY_SOURCE);
+        }
 
-    private int getX_alignLeft() {
-        return mLocationTarget[0] - mLocationSourceParent[0];
-    }
+        final TrackerMetrics metrics = mMetrics;
+        long startNanos = metrics == null ? 0 : System.nanoTime();
 
-    private int getX_alignRight(View source, View target) {
-        return getX_alignLeft() + (target.getWidth() - source.getWidth());
-    }
+        final View viewParent = (View) parent;
+        if (scroll && canShiftByScroll(source, target)) {
+            if (!getScrollResolver().resolve(viewParent, target, mScrollOffset)) {
+                return reject(TrackerMetrics.REJECT_RESOLVE_FAILED);
+            }
+            shiftByScroll();
+        } else {
+            if (!getOffsetResolver().resolve(viewParent, target, mOffset)) {
+                return reject(TrackerMetrics.REJECT_RESOLVE_FAILED);
+            }
+            computePosition(source, target);
 
-    private int getX_alignCenter(View source, View target) {
-        return getX_alignLeft() + (target.getWidth() - source.getWidth()) / 2;
-    }
+            if (scroll) {
+                saveScrollBase(viewParent, source, target);
+            } else {
+                mScrollBaseValid = false;
+            }
+        }
 
-    private int getY_alignTop() {
-        return mLocationTarget[1] - mLocationSourceParent[1];
-    }
+        mOutX = mX;
+        mOutY = mY;
+        final MotionPredictor predictor = mPredictor;
+        if (predictor != null) {
+            // 使用当前帧的时间，同一帧内的多次更新只算一个样本
+            predictor.record(AnimationUtils.currentAnimationTimeMillis() * 1_000_000L, mOffset[0], mOffset[1]);
+            if (predictor.predict(mPredictDelta)) {
+                if (mAnchor.followsX()) {
+                    mOutX += mPredictDelta[0];
+                }
+                if (mAnchor.followsY()) {
+                    mOutY += mPredictDelta[1];
+                }
+                postCorrection();
+            }
+        }
 
-    private int getY_alignBottom(View source, View target) {
-        return getY_alignTop() + (target.getHeight() - source.getHeight());
-    }
+        if (metrics != null) {
+            final long nanos = System.nanoTime();
+            metrics.onComputeTime(nanos - startNanos);
+            startNanos = nanos;
+        }
 
-    private int getY_alignCenter(View source, View target) {
-        return getY_alignTop() + (target.getHeight() - source.getHeight()) / 2;
-    }
+        if (mChangeDetectionEnabled && !force && isSameAsLastResult(source, target)) {
+            mSuppressedCount++;
+            if (metrics != null) {
+                metrics.onSuppressed();
+            }
+            trace(TraceFormat.RESULT_SUPPRESSED);
+            return true;
+        }
 
-    //---------- position start----------
+        mEmittedCount++;
+        if (applier != null) {
+            applier.apply(mOutX, mOutY, source);
+        }
+        if (callback != null) {
+            callback.onUpdate(mOutX, mOutY, source, target);
+        }
+        if (multicaster != null) {
+            multicaster.dispatch(mOutX, mOutY, source, target);
+        }
+        if (mChangeDetectionEnabled) {
+            // 位置应用对象和回调可能移动了源view，保存移动之后的状态
+            saveLastResult(source, target);
+        }
 
-    private void layoutTopLeft(View source, View target) {
-        mX = getX_alignLeft();
-        mY = getY_alignTop();
+        if (metrics != null) {
+            metrics.onCallbackTime(System.nanoTime() - startNanos);
+            metrics.onUpdated();
+        }
+        trace(TraceFormat.RESULT_EMITTED);
+        return true;
     }
 
-    private void layoutTopCenter(View source, View target) {
-        mX = getX_alignCenter(source, target);
-        mY = getY_alignTop();
-    }
+    private boolean checkCulled(View source, View target) {
+        if (source.getVisibility() != View.VISIBLE || target.getVisibility() != View.VISIBLE) {
+            return true;
+        }
 
-    private void layoutTopRight(View source, View target) {
-        mX = getX_alignRight(source, target);
-        mY = getY_alignTop();
+        // 绘制时间每帧变化一次，同一帧内复用检查结果
+        final long drawingTime = target.getDrawingTime();
+        if (!mHasCullResult || mCullDrawingTime != drawingTime) {
+            mHasCullResult = true;
+            mCullDrawingTime = drawingTime;
+            mCullTargetVisible = target.getGlobalVisibleRect(mCullRect);
+        }
+        return !mCullTargetVisible;
     }
 
-
-    private void layoutLeftCenter(View source, View target) {
-        mX = getX_alignLeft();
-        mY = getY_alignCenter(source, target);
+    private boolean reject(int reason) {
+        final TrackerMetrics metrics = mMetrics;
+        if (metrics != null) {
+            metrics.onRejected(reason);
+        }
+        trace(TraceFormat.RESULT_REJECTED + reason);
+        return false;
     }
 
-    private void layoutCenter(View source, View target) {
-        mX = getX_alignCenter(source, target);
-        mY = getY_alignCenter(source, target);
+    private void trace(int result) {
+        final TraceRecorder recorder = mTraceRecorder;
+        if (recorder != null) {
+            recorder.record(mTraceId, mTraceTrigger, mTraceKind, result, mOutX, mOutY, mOffset[0], mOffset[1]);
+        }
+        mTraceTrigger = TraceFormat.TRIGGER_MANUAL;
     }
 
-    private void layoutRightCenter(View source, View target) {
-        mX = getX_alignRight(source, target);
-        mY = getY_alignCenter(source, target);
+    private void computePosition(View source, View target) {
+        final Anchor anchor = mAnchor;
+        mX = anchor.computeX(getX_alignLeft(), target.getWidth(), source.getWidth(), source.getLeft());
+        mY = anchor.computeY(getY_alignTop(), target.getHeight(), source.getHeight(), source.getTop());
     }
 
+    private boolean canShiftByScroll(View source, View target) {
+        return mScrollBaseValid
+                && mScrollBaseAnchor == mAnchor
+                && mScrollBaseTargetWidth == target.getWidth()
+                && mScrollBaseTargetHeight == target.getHeight()
+                && mScrollBaseSourceWidth == source.getWidth()
+                && mScrollBaseSourceHeight == source.getHeight();
+    }
 
-    private void layoutBottomLeft(View source, View target) {
-        mX = getX_alignLeft();
-        mY = getY_alignBottom(source, target);
+    private void saveScrollBase(View parent, View source, View target) {
+        mScrollBaseValid = getScrollResolver().resolve(parent, target, mScrollBase);
+        mScrollBaseAnchor = mAnchor;
+        mScrollBaseTargetWidth = target.getWidth();
+        mScrollBaseTargetHeight = target.getHeight();
+        mScrollBaseSourceWidth = source.getWidth();
+        mScrollBaseSourceHeight = source.getHeight();
     }
 
-    private void layoutBottomCenter(View source, View target) {
-        mX = getX_alignCenter(source, target);
-        mY = getY_alignBottom(source, target);
+    /**
+     * 只有滚动变化的时候，把上一次的结果平移滚动的距离
+     */
+    private void shiftByScroll() {
+        final int dx = mScrollOffset[0] - mScrollBase[0];
+        final int dy = mScrollOffset[1] - mScrollBase[1];
+        mScrollBase[0] = mScrollOffset[0];
+        mScrollBase[1] = mScrollOffset[1];
+
+        mOffset[0] += dx;
+        mOffset[1] += dy;
+        if (mAnchor.followsX()) {
+            mX += dx;
+        }
+        if (mAnchor.followsY()) {
+            mY += dy;
+        }
     }
 
-    private void layoutBottomRight(View source, View target) {
-        mX = getX_alignRight(source, target);
-        mY = getY_alignBottom(source, target);
+    private void postCorrection() {
+        if (!mCorrectionPosted) {
+            mCorrectionPosted = true;
+            Choreographer.getInstance().postFrameCallback(mCorrectionCallback);
+        }
     }
 
+    private final Choreographer.FrameCallback mCorrectionCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mCorrectionPosted = false;
+            mTraceTrigger = TraceFormat.TRIGGER_PREDICTION;
+            updateInternal(false, false);
+        }
+    };
 
-    private void layoutLeft(View source, View target) {
-        mX = getX_alignLeft();
-        mY = source.getTop();
+    private CommonAncestorOffsetResolver getScrollResolver() {
+        if (mScrollResolver == null) {
+            mScrollResolver = new CommonAncestorOffsetResolver();
+        }
+        return mScrollResolver;
     }
 
-    private void layoutTop(View source, View target) {
-        mX = source.getLeft();
-        mY = getY_alignTop();
+    private boolean isSameAsLastResult(View source, View target) {
+        return mHasLastResult
+                && mLastX == mOutX
+                && mLastY == mOutY
+                && mLastAnchor == mAnchor
+                && mLastTargetX == getX_alignLeft()
+                && mLastTargetY == getY_alignTop()
+                && mLastTargetWidth == target.getWidth()
+                && mLastTargetHeight == target.getHeight()
+                && mLastSourceWidth == source.getWidth()
+                && mLastSourceHeight == source.getHeight()
+                && mLastSourceLeft == source.getLeft()
+                && mLastSourceTop == source.getTop()
+                && (mPositionApplier == null
+                || (mLastSourceTranslationX == source.getTranslationX()
+                && mLastSourceTranslationY == source.getTranslationY()));
     }
 
-    private void layoutRight(View source, View target) {
-        mX = getX_alignRight(source, target);
-        mY = source.getTop();
+    private void saveLastResult(View source, View target) {
+        mHasLastResult = true;
+        mLastX = mOutX;
+        mLastY = mOutY;
+        mLastAnchor = mAnchor;
+        mLastTargetX = getX_alignLeft();
+        mLastTargetY = getY_alignTop();
+        mLastTargetWidth = target.getWidth();
+        mLastTargetHeight = target.getHeight();
+        mLastSourceWidth = source.getWidth();
+        mLastSourceHeight = source.getHeight();
+        mLastSourceLeft = source.getLeft();
+        mLastSourceTop = source.getTop();
+        mLastSourceTranslationX = source.getTranslationX();
+        mLastSourceTranslationY = source.getTranslationY();
     }
 
-    private void layoutBottom(View source, View target) {
-        mX = source.getLeft();
-        mY = getY_alignBottom(source, target);
+    private void resetLastResult() {
+        mHasLastResult = false;
+        mScrollBaseValid = false;
+        if (mPredictor != null) {
+            mPredictor.reset();
+        }
     }
 
-    //---------- position end----------
-
-    private static boolean isViewAttached(View view) {
-        if (view == null) {
-            return false;
-        }
+    private int getX_alignLeft() {
+        return mOffset[0];
+    }
 
-        if (Build.VERSION.SDK_INT >= 19) {
-            return view.isAttachedToWindow();
-        } else {
-            return view.getWindowToken() != null;
-        }
+    private int getY_alignTop() {
+        return mOffset[1];
     }
 }
\ No newline at end of file
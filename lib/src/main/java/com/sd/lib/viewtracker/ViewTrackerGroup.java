@@ -0,0 +1,77 @@
+package com.sd.lib.viewtracker;
+
+import androidx.annotation.NonNull;
+
+import com.sd.lib.viewtracker.location.MemoOffsetResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量更新多个{@link FViewTracker}，同一次批量更新中公共的祖先布局位置只计算一次
+ * <p>
+ * 添加到组里的追踪对象会被设置组内共享的{@link MemoOffsetResolver}
+ */
+public class ViewTrackerGroup {
+    private final List<FViewTracker> mListTracker = new ArrayList<>();
+    private final MemoOffsetResolver mResolver = new MemoOffsetResolver();
+
+    /**
+     * 添加追踪对象
+     */
+    public void add(@NonNull FViewTracker tracker) {
+        if (!mListTracker.contains(tracker)) {
+            mListTracker.add(tracker);
+            tracker.setOffsetResolver(mResolver);
+        }
+    }
+
+    /**
+     * 移除追踪对象，移除后恢复默认的偏移计算对象
+     */
+    public void remove(@NonNull FViewTracker tracker) {
+        if (mListTracker.remove(tracker)) {
+            tracker.setOffsetResolver(null);
+        }
+    }
+
+    /**
+     * 移除所有追踪对象
+     */
+    public void clear() {
+        for (FViewTracker item : mListTracker) {
+            item.setOffsetResolver(null);
+        }
+        mListTracker.clear();
+    }
+
+    /**
+     * 返回追踪对象的数量
+     */
+    public int size() {
+        return mListTracker.size();
+    }
+
+    /**
+     * 更新所有追踪对象
+     *
+     * @return 回调了{@link ViewTracker.Callback#onUpdate}的追踪对象数量
+     */
+    public int updateAll() {
+        int count = 0;
+        mResolver.beginPass();
+        try {
+            for (int i = 0, size = mListTracker.size(); i < size; i++) {
+                final FViewTracker item = mListTracker.get(i);
+                final long emitted = item.getEmittedUpdateCount();
+                item.update();
+                if (item.getEmittedUpdateCount() != emitted) {
+                    count++;
+                }
+            }
+        } finally {
+            mResolver.endPass();
+        }
+        return count;
+    }
+}
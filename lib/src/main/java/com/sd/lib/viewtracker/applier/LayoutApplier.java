@@ -0,0 +1,15 @@
+package com.sd.lib.viewtracker.applier;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 通过{@link View#layout(int, int, int, int)}来移动源view
+ */
+public class LayoutApplier implements PositionApplier {
+    @Override
+    public void apply(int x, int y, @NonNull View source) {
+        source.layout(x, y, x + source.getMeasuredWidth(), y + source.getMeasuredHeight());
+    }
+}
@@ -0,0 +1,24 @@
+package com.sd.lib.viewtracker.applier;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 通过{@link View#offsetLeftAndRight(int)}和{@link View#offsetTopAndBottom(int)}来移动源view，不会触发重新布局
+ * <p>
+ * 父布局下一次布局的时候源view会回到布局的位置，需要配合源view的布局变化监听重新追踪
+ */
+public class OffsetApplier implements PositionApplier {
+    @Override
+    public void apply(int x, int y, @NonNull View source) {
+        final int dx = x - source.getLeft();
+        final int dy = y - source.getTop();
+        if (dx != 0) {
+            source.offsetLeftAndRight(dx);
+        }
+        if (dy != 0) {
+            source.offsetTopAndBottom(dy);
+        }
+    }
+}
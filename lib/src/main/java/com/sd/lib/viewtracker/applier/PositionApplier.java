@@ -0,0 +1,19 @@
+package com.sd.lib.viewtracker.applier;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 把追踪的结果应用到源view
+ */
+public interface PositionApplier {
+    /**
+     * 把source移动到相对于父布局的(x, y)位置
+     *
+     * @param x      source相对于父布局的x值
+     * @param y      source相对于父布局的y值
+     * @param source 源view
+     */
+    void apply(int x, int y, @NonNull View source);
+}
@@ -0,0 +1,23 @@
+package com.sd.lib.viewtracker.applier;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 通过{@link View#setTranslationX(float)}和{@link View#setTranslationY(float)}来移动源view，
+ * 平移值相对于源view布局后的位置，不会触发重新布局
+ */
+public class TranslationApplier implements PositionApplier {
+    @Override
+    public void apply(int x, int y, @NonNull View source) {
+        final float translationX = x - source.getLeft();
+        final float translationY = y - source.getTop();
+        if (source.getTranslationX() != translationX) {
+            source.setTranslationX(translationX);
+        }
+        if (source.getTranslationY() != translationY) {
+            source.setTranslationY(translationY);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.sd.lib.viewtracker.core;
+
+/**
+ * 追踪的锚点，每个方向用预先计算好的系数表示：
+ * <pre>
+ * x = follow * (target偏移 + (int) (target比例 * target大小 - source比例 * source大小) + 偏移量) + (1 - follow) * source当前位置
+ * </pre>
+ * follow为1表示跟随target，为0表示保持source当前的位置
+ * <p>
+ * 不依赖Android平台，对象不可变
+ */
+public final class Anchor {
+    private final int mFollowX;
+    private final float mTargetFractionX;
+    private final float mSourceFractionX;
+    private final int mOffsetX;
+
+    private final int mFollowY;
+    private final float mTargetFractionY;
+    private final float mSourceFractionY;
+    private final int mOffsetY;
+
+    private Anchor(int followX, float targetFractionX, float sourceFractionX, int offsetX,
+                   int followY, float targetFractionY, float sourceFractionY, int offsetY) {
+        mFollowX = followX;
+        mTargetFractionX = targetFractionX;
+        mSourceFractionX = sourceFractionX;
+        mOffsetX = offsetX;
+        mFollowY = followY;
+        mTargetFractionY = targetFractionY;
+        mSourceFractionY = sourceFractionY;
+        mOffsetY = offsetY;
+    }
+
+    /**
+     * 创建锚点，source上的点(sourceFractionX, sourceFractionY)与target上的点(targetFractionX, targetFractionY)对齐
+     * <p>
+     * 例如：(0, 0, 0, 0)左上角对齐，(0.5f, 0.5f, 0.5f, 0.5f)中间对齐，(0.25f, 0.5f, 1, 0)source顶部中间对齐target底部25%的位置
+     */
+    public static Anchor create(float targetFractionX, float sourceFractionX, float targetFractionY, float sourceFractionY) {
+        return new Anchor(1, targetFractionX, sourceFractionX, 0,
+                1, targetFractionY, sourceFractionY, 0);
+    }
+
+    /**
+     * 创建只在y方向跟随target的锚点，x方向保持source当前的位置
+     */
+    public static Anchor keepX(float targetFractionY, float sourceFractionY) {
+        return new Anchor(0, 0, 0, 0,
+                1, targetFractionY, sourceFractionY, 0);
+    }
+
+    /**
+     * 创建只在x方向跟随target的锚点，y方向保持source当前的位置
+     */
+    public static Anchor keepY(float targetFractionX, float sourceFractionX) {
+        return new Anchor(1, targetFractionX, sourceFractionX, 0,
+                0, 0, 0, 0);
+    }
+
+    /**
+     * source水平居中显示在target下方，间隔gap像素
+     */
+    public static Anchor below(int gap) {
+        return create(0.5f, 0.5f, 1, 0).withOffset(0, gap);
+    }
+
+    /**
+     * source水平居中显示在target上方，间隔gap像素
+     */
+    public static Anchor above(int gap) {
+        return create(0.5f, 0.5f, 0, 1).withOffset(0, -gap);
+    }
+
+    /**
+     * source垂直居中显示在target左边，间隔gap像素
+     */
+    public static Anchor toLeftOf(int gap) {
+        return create(0, 1, 0.5f, 0.5f).withOffset(-gap, 0);
+    }
+
+    /**
+     * source垂直居中显示在target右边，间隔gap像素
+     */
+    public static Anchor toRightOf(int gap) {
+        return create(1, 0, 0.5f, 0.5f).withOffset(gap, 0);
+    }
+
+    /**
+     * 返回一个新的锚点，在当前锚点的基础上增加像素偏移，保持source当前位置的方向不受影响
+     */
+    public Anchor withOffset(int offsetX, int offsetY) {
+        return new Anchor(mFollowX, mTargetFractionX, mSourceFractionX, mOffsetX + offsetX,
+                mFollowY, mTargetFractionY, mSourceFractionY, mOffsetY + offsetY);
+    }
+
+    /**
+     * x方向是否跟随target
+     */
+    public boolean followsX() {
+        return mFollowX != 0;
+    }
+
+    /**
+     * y方向是否跟随target
+     */
+    public boolean followsY() {
+        return mFollowY != 0;
+    }
+
+    /**
+     * 计算x方向的位置
+     *
+     * @param targetOffset target相对于source父布局的偏移
+     * @param targetSize   target的宽度
+     * @param sourceSize   source的宽度
+     * @param sourceStart  source当前相对于父布局的位置
+     */
+    public int computeX(int targetOffset, int targetSize, int sourceSize, int sourceStart) {
+        return mFollowX * (targetOffset + (int) (mTargetFractionX * targetSize - mSourceFractionX * sourceSize) + mOffsetX)
+                + (1 - mFollowX) * sourceStart;
+    }
+
+    /**
+     * 计算y方向的位置
+     *
+     * @param targetOffset target相对于source父布局的偏移
+     * @param targetSize   target的高度
+     * @param sourceSize   source的高度
+     * @param sourceStart  source当前相对于父布局的位置
+     */
+    public int computeY(int targetOffset, int targetSize, int sourceSize, int sourceStart) {
+        return mFollowY * (targetOffset + (int) (mTargetFractionY * targetSize - mSourceFractionY * sourceSize) + mOffsetY)
+                + (1 - mFollowY) * sourceStart;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final Anchor anchor = (Anchor) o;
+        return mFollowX == anchor.mFollowX
+                && Float.compare(anchor.mTargetFractionX, mTargetFractionX) == 0
+                && Float.compare(anchor.mSourceFractionX, mSourceFractionX) == 0
+                && mOffsetX == anchor.mOffsetX
+                && mFollowY == anchor.mFollowY
+                && Float.compare(anchor.mTargetFractionY, mTargetFractionY) == 0
+                && Float.compare(anchor.mSourceFractionY, mSourceFractionY) == 0
+                && mOffsetY == anchor.mOffsetY;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mFollowX;
+        result = 31 * result + Float.floatToIntBits(mTargetFractionX);
+        result = 31 * result + Float.floatToIntBits(mSourceFractionX);
+        result = 31 * result + mOffsetX;
+        result = 31 * result + mFollowY;
+        result = 31 * result + Float.floatToIntBits(mTargetFractionY);
+        result = 31 * result + Float.floatToIntBits(mSourceFractionY);
+        result = 31 * result + mOffsetY;
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+package com.sd.lib.viewtracker.core;
+
+/**
+ * 根据最近几次的位置和时间估算速度，预测下一帧的位置
+ * <p>
+ * 最近两次的位置相同时认为已经停止，速度为0；预测的位移在每个方向上不超过{@link #setMaxOvershoot(int)}，
+ * 所以目标突然停止的时候，预测位置和真实位置的误差不会超过这个值
+ * <p>
+ * 时间应该使用帧的时间，同一帧内多次记录时只保留最后一次的位置
+ * <p>
+ * 不依赖Android平台，时间单位为纳秒
+ */
+public final class MotionPredictor {
+    /** 默认的样本数量 */
+    public static final int DEFAULT_CAPACITY = 4;
+    /** 默认的最大超调像素 */
+    public static final int DEFAULT_MAX_OVERSHOOT = 24;
+    /** 预测时长的上限，大约两帧 */
+    private static final long MAX_LEAD_NANOS = 33_000_000L;
+    /** 两个样本的时间间隔超过这个值认为运动已经中断 */
+    private static final long MAX_SAMPLE_GAP_NANOS = 100_000_000L;
+
+    private final long[] mTimes;
+    private final int[] mXs;
+    private final int[] mYs;
+    /** 下一个样本写入的位置 */
+    private int mHead;
+    private int mSize;
+
+    private int mMaxOvershoot = DEFAULT_MAX_OVERSHOOT;
+
+    public MotionPredictor() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 保存的样本数量，至少2个
+     */
+    public MotionPredictor(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be >= 2");
+        }
+        mTimes = new long[capacity];
+        mXs = new int[capacity];
+        mYs = new int[capacity];
+    }
+
+    /**
+     * 设置每个方向上预测位移的最大值（像素），小于等于0表示不预测
+     */
+    public void setMaxOvershoot(int pixels) {
+        mMaxOvershoot = pixels;
+    }
+
+    public int getMaxOvershoot() {
+        return mMaxOvershoot;
+    }
+
+    /**
+     * 记录一个真实的位置，如果时间和最近一次记录的相同，则替换最近一次记录的位置
+     *
+     * @param timeNanos 帧的时间
+     * @param x         x值
+     * @param y         y值
+     */
+    public void record(long timeNanos, int x, int y) {
+        if (mSize > 0) {
+            final int newest = index(0);
+            final long last = mTimes[newest];
+            if (timeNanos == last) {
+                // 同一帧内的多次更新
+                mXs[newest] = x;
+                mYs[newest] = y;
+                return;
+            }
+            if (timeNanos - last > MAX_SAMPLE_GAP_NANOS || timeNanos < last) {
+                mSize = 0;
+            }
+        }
+
+        mTimes[mHead] = timeNanos;
+        mXs[mHead] = x;
+        mYs[mHead] = y;
+        mHead = (mHead + 1) % mTimes.length;
+        if (mSize < mTimes.length) {
+            mSize++;
+        }
+    }
+
+    /**
+     * 预测下一帧相对于最近一次记录的位移
+     *
+     * @param outDelta 保存结果，[0]-x方向的位移，[1]-y方向的位移
+     * @return true-预测的位移不为0
+     */
+    public boolean predict(int[] outDelta) {
+        outDelta[0] = 0;
+        outDelta[1] = 0;
+        if (mSize < 2 || mMaxOvershoot <= 0) {
+            return false;
+        }
+
+        final int newest = index(0);
+        final int previous = index(1);
+        if (mXs[newest] == mXs[previous] && mYs[newest] == mYs[previous]) {
+            // 已经停止
+            return false;
+        }
+
+        final int oldest = index(mSize - 1);
+        final long span = mTimes[newest] - mTimes[oldest];
+        if (span <= 0) {
+            return false;
+        }
+
+        // 预测时长取样本的平均间隔，也就是下一次更新大概的时间
+        final long lead = Math.min(span / (mSize - 1), MAX_LEAD_NANOS);
+        final double scale = (double) lead / span;
+        outDelta[0] = clamp((int) Math.round((mXs[newest] - mXs[oldest]) * scale), mMaxOvershoot);
+        outDelta[1] = clamp((int) Math.round((mYs[newest] - mYs[oldest]) * scale), mMaxOvershoot);
+        return outDelta[0] != 0 || outDelta[1] != 0;
+    }
+
+    /**
+     * 清空样本
+     */
+    public void reset() {
+        mHead = 0;
+        mSize = 0;
+    }
+
+    /**
+     * 返回倒数第n个样本的下标，0表示最近一次
+     */
+    private int index(int n) {
+        final int length = mTimes.length;
+        return ((mHead - 1 - n) % length + length) % length;
+    }
+
+    private static int clamp(int value, int max) {
+        if (value > max) return max;
+        if (value < -max) return -max;
+        return value;
+    }
+}
@@ -0,0 +1,241 @@
+package com.sd.lib.viewtracker.core;
+
+import java.util.Arrays;
+
+/**
+ * 避免重叠的摆放计算
+ * <p>
+ * 按照下标顺序摆放{@link PlacementSnapshot}中的矩形，和已经摆放的矩形重叠的时候沿着推开方向移动，
+ * 已经摆放的矩形保存在均匀网格中，每次只查询附近的格子。
+ * 和上一次相比，只有期望位置变化的矩形，或者上一次的摆放路径和本次发生变化的矩形相交的矩形才会重新计算，
+ * 其他矩形直接使用上一次的结果
+ * <p>
+ * 不依赖Android平台，只使用基本类型数组，可以在其他线程计算，同一个对象同一时间只能在一个线程使用
+ */
+public final class PlacementEngine {
+    /** 向下推开 */
+    public static final int PUSH_DOWN = 0;
+    /** 向上推开 */
+    public static final int PUSH_UP = 1;
+    /** 向右推开 */
+    public static final int PUSH_RIGHT = 2;
+    /** 向左推开 */
+    public static final int PUSH_LEFT = 3;
+
+    /** 默认的网格大小（像素） */
+    public static final int DEFAULT_CELL_SIZE = 128;
+
+    private final UniformGrid mPlaced;
+    /** 本次摆放结果发生变化的矩形，包括旧的位置和新的位置 */
+    private final UniformGrid mChanged;
+    private final int[] mHitRect = new int[4];
+
+    private int mPush = PUSH_DOWN;
+    private int mGap;
+
+    private int mCount;
+    private int[] mDesiredLeft = new int[8];
+    private int[] mDesiredTop = new int[8];
+    private int[] mWidth = new int[8];
+    private int[] mHeight = new int[8];
+    private int[] mFinalLeft = new int[8];
+    private int[] mFinalTop = new int[8];
+
+    private int mResolvedCount;
+    private int mChangedCount;
+
+    public PlacementEngine() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * @param cellSize 网格大小（像素），一般取矩形的平均大小
+     */
+    public PlacementEngine(int cellSize) {
+        mPlaced = new UniformGrid(cellSize);
+        mChanged = new UniformGrid(cellSize);
+    }
+
+    /**
+     * 设置推开方向，默认{@link #PUSH_DOWN}
+     */
+    public void setPushDirection(int direction) {
+        if (direction < PUSH_DOWN || direction > PUSH_LEFT) {
+            throw new IllegalArgumentException("Illegal direction:" + direction);
+        }
+        if (mPush != direction) {
+            mPush = direction;
+            reset();
+        }
+    }
+
+    /**
+     * 设置矩形之间的最小间隔（像素），默认0
+     */
+    public void setGap(int gap) {
+        if (mGap != gap) {
+            mGap = Math.max(0, gap);
+            reset();
+        }
+    }
+
+    /**
+     * 清空上一次的结果，下一次全部重新计算
+     */
+    public void reset() {
+        mCount = 0;
+    }
+
+    /**
+     * 计算快照中所有矩形的最终位置
+     *
+     * @return 本次重新计算的矩形数量
+     */
+    public int resolve(PlacementSnapshot snapshot) {
+        final int count = snapshot.getCount();
+        final int prevCount = mCount;
+        ensureCapacity(count);
+
+        final int gap = mGap;
+        mPlaced.clear(count * 4);
+        mChanged.clear(count * 4);
+        mResolvedCount = 0;
+        mChangedCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            final int left = snapshot.getLeft(i);
+            final int top = snapshot.getTop(i);
+            final int width = snapshot.getWidth(i);
+            final int height = snapshot.getHeight(i);
+
+            final boolean hasOld = i < prevCount;
+            final int oldLeft = mFinalLeft[i];
+            final int oldTop = mFinalTop[i];
+            final int oldWidth = mWidth[i];
+            final int oldHeight = mHeight[i];
+
+            boolean dirty = !hasOld
+                    || mDesiredLeft[i] != left
+                    || mDesiredTop[i] != top
+                    || oldWidth != width
+                    || oldHeight != height;
+
+            if (!dirty && mChangedCount > 0) {
+                // 上一次从期望位置推到最终位置经过的区域
+                final int sweptLeft = Math.min(left, oldLeft);
+                final int sweptTop = Math.min(top, oldTop);
+                final int sweptRight = Math.max(left, oldLeft) + width;
+                final int sweptBottom = Math.max(top, oldTop) + height;
+                dirty = mChanged.findOverlap(sweptLeft - gap, sweptTop - gap,
+                        sweptRight + gap, sweptBottom + gap) >= 0;
+            }
+
+            mDesiredLeft[i] = left;
+            mDesiredTop[i] = top;
+            mWidth[i] = width;
+            mHeight[i] = height;
+
+            if (dirty) {
+                place(i, left, top, width, height);
+                mResolvedCount++;
+
+                if (!hasOld || oldLeft != mFinalLeft[i] || oldTop != mFinalTop[i]
+                        || oldWidth != width || oldHeight != height) {
+                    if (hasOld) {
+                        mChanged.insert(i, oldLeft, oldTop, oldLeft + oldWidth, oldTop + oldHeight);
+                    }
+                    mChanged.insert(i, mFinalLeft[i], mFinalTop[i], mFinalLeft[i] + width, mFinalTop[i] + height);
+                    mChangedCount++;
+                }
+            }
+
+            mPlaced.insert(i, mFinalLeft[i], mFinalTop[i], mFinalLeft[i] + width, mFinalTop[i] + height);
+        }
+
+        mCount = count;
+        return mResolvedCount;
+    }
+
+    private void place(int index, int left, int top, int width, int height) {
+        final int gap = mGap;
+        final int[] hit = mHitRect;
+        int x = left;
+        int y = top;
+
+        // 每次移动都会越过一个已经摆放的矩形，最多移动index次
+        for (int i = 0; i <= index; i++) {
+            final int item = mPlaced.findOverlap(x - gap, y - gap, x + width + gap, y + height + gap, hit);
+            if (item < 0) {
+                break;
+            }
+
+            switch (mPush) {
+                case PUSH_DOWN:
+                    y = hit[3] + gap;
+                    break;
+                case PUSH_UP:
+                    y = hit[1] - gap - height;
+                    break;
+                case PUSH_RIGHT:
+                    x = hit[2] + gap;
+                    break;
+                default:
+                    x = hit[0] - gap - width;
+                    break;
+            }
+        }
+
+        mFinalLeft[index] = x;
+        mFinalTop[index] = y;
+    }
+
+    /**
+     * 返回最近一次计算的矩形数量
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * 返回指定下标矩形最终的x值
+     */
+    public int getX(int index) {
+        return mFinalLeft[index];
+    }
+
+    /**
+     * 返回指定下标矩形最终的y值
+     */
+    public int getY(int index) {
+        return mFinalTop[index];
+    }
+
+    /**
+     * 复制最终位置相对于期望位置的偏移，数组长度至少为{@link #getCount()}
+     */
+    public void copyOffsets(int[] outDx, int[] outDy) {
+        for (int i = 0; i < mCount; i++) {
+            outDx[i] = mFinalLeft[i] - mDesiredLeft[i];
+            outDy[i] = mFinalTop[i] - mDesiredTop[i];
+        }
+    }
+
+    /**
+     * 返回最近一次重新计算的矩形数量
+     */
+    public int getResolvedCount() {
+        return mResolvedCount;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > mDesiredLeft.length) {
+            final int size = Math.max(capacity, mDesiredLeft.length * 2);
+            mDesiredLeft = Arrays.copyOf(mDesiredLeft, size);
+            mDesiredTop = Arrays.copyOf(mDesiredTop, size);
+            mWidth = Arrays.copyOf(mWidth, size);
+            mHeight = Arrays.copyOf(mHeight, size);
+            mFinalLeft = Arrays.copyOf(mFinalLeft, size);
+            mFinalTop = Arrays.copyOf(mFinalTop, size);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.sd.lib.viewtracker.core;
+
+import java.util.Arrays;
+
+/**
+ * 一帧中所有候选源view矩形的快照，只使用基本类型数组，用于交给{@link PlacementEngine}计算
+ * <p>
+ * 下标就是源view的标识，每一帧同一个源view应该使用相同的下标，下标越小优先级越高。
+ * 在主线程填充之后可以通过{@link #copyFrom(PlacementSnapshot)}复制一份交给其他线程
+ */
+public final class PlacementSnapshot {
+    private int mCount;
+    private int[] mLeft = new int[8];
+    private int[] mTop = new int[8];
+    private int[] mWidth = new int[8];
+    private int[] mHeight = new int[8];
+
+    /**
+     * 设置矩形的数量，新增的矩形为空
+     */
+    public void setCount(int count) {
+        ensureCapacity(count);
+        for (int i = mCount; i < count; i++) {
+            mLeft[i] = 0;
+            mTop[i] = 0;
+            mWidth[i] = 0;
+            mHeight[i] = 0;
+        }
+        mCount = count;
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * 设置指定下标的矩形，例如{@link com.sd.lib.viewtracker.ViewTracker.Callback#onUpdate}回调的x，y和源view的大小
+     */
+    public void set(int index, int left, int top, int width, int height) {
+        if (index < 0 || index >= mCount) {
+            throw new IndexOutOfBoundsException("index:" + index + " count:" + mCount);
+        }
+        mLeft[index] = left;
+        mTop[index] = top;
+        mWidth[index] = width;
+        mHeight[index] = height;
+    }
+
+    /**
+     * 复制另一个快照的数据
+     */
+    public void copyFrom(PlacementSnapshot other) {
+        ensureCapacity(other.mCount);
+        System.arraycopy(other.mLeft, 0, mLeft, 0, other.mCount);
+        System.arraycopy(other.mTop, 0, mTop, 0, other.mCount);
+        System.arraycopy(other.mWidth, 0, mWidth, 0, other.mCount);
+        System.arraycopy(other.mHeight, 0, mHeight, 0, other.mCount);
+        mCount = other.mCount;
+    }
+
+    public int getLeft(int index) {
+        return mLeft[index];
+    }
+
+    public int getTop(int index) {
+        return mTop[index];
+    }
+
+    public int getWidth(int index) {
+        return mWidth[index];
+    }
+
+    public int getHeight(int index) {
+        return mHeight[index];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > mLeft.length) {
+            final int size = Math.max(capacity, mLeft.length * 2);
+            mLeft = Arrays.copyOf(mLeft, size);
+            mTop = Arrays.copyOf(mTop, size);
+            mWidth = Arrays.copyOf(mWidth, size);
+            mHeight = Arrays.copyOf(mHeight, size);
+        }
+    }
+}
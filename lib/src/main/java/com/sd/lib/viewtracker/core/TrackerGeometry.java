@@ -0,0 +1,39 @@
+package com.sd.lib.viewtracker.core;
+
+/**
+ * 追踪位置的计算，只依赖基本类型，不依赖Android平台，可以在普通的JVM上运行
+ */
+public final class TrackerGeometry {
+    public static final Anchor TOP_LEFT = Anchor.create(0, 0, 0, 0);
+    public static final Anchor TOP_CENTER = Anchor.create(0.5f, 0.5f, 0, 0);
+    public static final Anchor TOP_RIGHT = Anchor.create(1, 1, 0, 0);
+
+    public static final Anchor LEFT_CENTER = Anchor.create(0, 0, 0.5f, 0.5f);
+    public static final Anchor CENTER = Anchor.create(0.5f, 0.5f, 0.5f, 0.5f);
+    public static final Anchor RIGHT_CENTER = Anchor.create(1, 1, 0.5f, 0.5f);
+
+    public static final Anchor BOTTOM_LEFT = Anchor.create(0, 0, 1, 1);
+    public static final Anchor BOTTOM_CENTER = Anchor.create(0.5f, 0.5f, 1, 1);
+    public static final Anchor BOTTOM_RIGHT = Anchor.create(1, 1, 1, 1);
+
+    public static final Anchor LEFT = Anchor.keepY(0, 0);
+    public static final Anchor TOP = Anchor.keepX(0, 0);
+    public static final Anchor RIGHT = Anchor.keepY(1, 1);
+    public static final Anchor BOTTOM = Anchor.keepX(1, 1);
+
+    private TrackerGeometry() {
+    }
+
+    /**
+     * 计算source相对于父布局的位置
+     *
+     * @param anchor 锚点
+     * @param target target相对于source父布局的矩形，[left, top, width, height]
+     * @param source source相对于父布局的矩形，[left, top, width, height]
+     * @param outXY  保存计算结果，[0]-x，[1]-y
+     */
+    public static void compute(Anchor anchor, int[] target, int[] source, int[] outXY) {
+        outXY[0] = anchor.computeX(target[0], target[2], source[2], source[0]);
+        outXY[1] = anchor.computeY(target[1], target[3], source[3], source[1]);
+    }
+}
@@ -0,0 +1,174 @@
+package com.sd.lib.viewtracker.core;
+
+import java.util.Arrays;
+
+/**
+ * 均匀网格空间索引，矩形按照覆盖的格子保存在哈希表中，只使用基本类型数组
+ * <p>
+ * 矩形为[left, right)和[top, bottom)，不是线程安全的
+ */
+final class UniformGrid {
+    private final int mCellSize;
+
+    /** 哈希桶，保存第一个条目的下标，-1表示空 */
+    private int[] mHeads = new int[16];
+    private int mMask = 15;
+
+    private int[] mEntryRecord = new int[16];
+    private int[] mEntryNext = new int[16];
+    private int mEntryCount;
+
+    private int[] mRecLeft = new int[16];
+    private int[] mRecTop = new int[16];
+    private int[] mRecRight = new int[16];
+    private int[] mRecBottom = new int[16];
+    private int[] mRecItem = new int[16];
+    /** 查询去重，记录最近一次访问这个矩形的查询 */
+    private int[] mRecStamp = new int[16];
+    private int mRecCount;
+    private int mStamp;
+
+    UniformGrid(int cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be > 0");
+        }
+        mCellSize = cellSize;
+        Arrays.fill(mHeads, -1);
+    }
+
+    /**
+     * 清空所有矩形
+     *
+     * @param expectedEntries 预计保存的格子条目数量，用来决定哈希表的大小
+     */
+    void clear(int expectedEntries) {
+        int size = mHeads.length;
+        while (size < expectedEntries * 2) {
+            size <<= 1;
+        }
+        if (size != mHeads.length) {
+            mHeads = new int[size];
+            mMask = size - 1;
+        }
+        Arrays.fill(mHeads, -1);
+        mEntryCount = 0;
+        mRecCount = 0;
+    }
+
+    /**
+     * 添加矩形
+     *
+     * @param item 矩形对应的对象下标
+     */
+    void insert(int item, int left, int top, int right, int bottom) {
+        if (right <= left || bottom <= top) {
+            return;
+        }
+
+        final int record = mRecCount;
+        if (record == mRecItem.length) {
+            final int capacity = record * 2;
+            mRecLeft = Arrays.copyOf(mRecLeft, capacity);
+            mRecTop = Arrays.copyOf(mRecTop, capacity);
+            mRecRight = Arrays.copyOf(mRecRight, capacity);
+            mRecBottom = Arrays.copyOf(mRecBottom, capacity);
+            mRecItem = Arrays.copyOf(mRecItem, capacity);
+            mRecStamp = Arrays.copyOf(mRecStamp, capacity);
+        }
+        mRecLeft[record] = left;
+        mRecTop[record] = top;
+        mRecRight[record] = right;
+        mRecBottom[record] = bottom;
+        mRecItem[record] = item;
+        mRecStamp[record] = mStamp;
+        mRecCount++;
+
+        final int cx0 = cell(left);
+        final int cy0 = cell(top);
+        final int cx1 = cell(right - 1);
+        final int cy1 = cell(bottom - 1);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                addEntry(hash(cx, cy), record);
+            }
+        }
+    }
+
+    /**
+     * 查找一个和指定矩形相交的矩形
+     *
+     * @return 相交矩形对应的对象下标，-1表示没有
+     */
+    int findOverlap(int left, int top, int right, int bottom) {
+        final int record = findRecord(left, top, right, bottom);
+        return record < 0 ? -1 : mRecItem[record];
+    }
+
+    /**
+     * 查找一个和指定矩形相交的矩形，保存到outRect，[left, top, right, bottom]
+     *
+     * @return 相交矩形对应的对象下标，-1表示没有
+     */
+    int findOverlap(int left, int top, int right, int bottom, int[] outRect) {
+        final int record = findRecord(left, top, right, bottom);
+        if (record < 0) {
+            return -1;
+        }
+        outRect[0] = mRecLeft[record];
+        outRect[1] = mRecTop[record];
+        outRect[2] = mRecRight[record];
+        outRect[3] = mRecBottom[record];
+        return mRecItem[record];
+    }
+
+    private int findRecord(int left, int top, int right, int bottom) {
+        if (right <= left || bottom <= top || mRecCount == 0) {
+            return -1;
+        }
+
+        final int stamp = ++mStamp;
+        final int cx0 = cell(left);
+        final int cy0 = cell(top);
+        final int cx1 = cell(right - 1);
+        final int cy1 = cell(bottom - 1);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int entry = mHeads[hash(cx, cy)];
+                while (entry >= 0) {
+                    final int record = mEntryRecord[entry];
+                    if (mRecStamp[record] != stamp) {
+                        mRecStamp[record] = stamp;
+                        if (mRecLeft[record] < right && left < mRecRight[record]
+                                && mRecTop[record] < bottom && top < mRecBottom[record]) {
+                            return record;
+                        }
+                    }
+                    entry = mEntryNext[entry];
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void addEntry(int bucket, int record) {
+        final int entry = mEntryCount;
+        if (entry == mEntryRecord.length) {
+            mEntryRecord = Arrays.copyOf(mEntryRecord, entry * 2);
+            mEntryNext = Arrays.copyOf(mEntryNext, entry * 2);
+        }
+        mEntryRecord[entry] = record;
+        mEntryNext[entry] = mHeads[bucket];
+        mHeads[bucket] = entry;
+        mEntryCount++;
+    }
+
+    private int cell(int value) {
+        // 向下取整，负坐标也落在正确的格子中
+        final int cell = value / mCellSize;
+        return (value % mCellSize != 0 && value < 0) ? cell - 1 : cell;
+    }
+
+    private int hash(int cx, int cy) {
+        return ((cx * 73856093) ^ (cy * 19349663)) & mMask;
+    }
+}
@@ -0,0 +1,268 @@
+package com.sd.lib.viewtracker.core;
+
+import java.util.Arrays;
+
+/**
+ * 多个矩形的并集，按下标增量更新
+ * <p>
+ * 修改某个矩形的时候，只有它原来位于并集的边界并且这条边往里收缩了，才会重新遍历所有矩形计算并集，
+ * 否则直接用新的矩形扩展并集
+ * <p>
+ * 不依赖Android平台，矩形用[left, top, right, bottom]保存在基本类型数组中
+ */
+public final class UnionBounds {
+    private static final int LEFT = 0;
+    private static final int TOP = 1;
+    private static final int RIGHT = 2;
+    private static final int BOTTOM = 3;
+
+    private int[] mRects = new int[4 * 4];
+    private boolean[] mValid = new boolean[4];
+    private int mSize;
+
+    private final int[] mUnion = new int[4];
+    private boolean mUnionEmpty = true;
+
+    private long mFullCount;
+    private long mIncrementalCount;
+
+    /**
+     * 在末尾增加一个空的矩形，空的矩形不参与并集的计算
+     *
+     * @return 新矩形的下标
+     */
+    public int add() {
+        if (mSize == mValid.length) {
+            final int capacity = mSize * 2;
+            mRects = Arrays.copyOf(mRects, capacity * 4);
+            mValid = Arrays.copyOf(mValid, capacity);
+        }
+        mValid[mSize] = false;
+        return mSize++;
+    }
+
+    /**
+     * 移除指定下标的矩形，最后一个矩形会移动到这个下标
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        final boolean onEdge = isOnEdge(index);
+
+        final int last = mSize - 1;
+        if (index != last) {
+            System.arraycopy(mRects, last * 4, mRects, index * 4, 4);
+            mValid[index] = mValid[last];
+        }
+        mValid[last] = false;
+        mSize--;
+
+        if (onEdge) {
+            recompute();
+        }
+    }
+
+    /**
+     * 移除所有矩形
+     */
+    public void clear() {
+        Arrays.fill(mValid, 0, mSize, false);
+        mSize = 0;
+        mUnionEmpty = true;
+    }
+
+    /**
+     * 设置指定下标的矩形
+     *
+     * @return true-并集发生了变化
+     */
+    public boolean set(int index, int left, int top, int right, int bottom) {
+        checkIndex(index);
+        final int offset = index * 4;
+        final int[] rects = mRects;
+        if (mValid[index]
+                && rects[offset + LEFT] == left
+                && rects[offset + TOP] == top
+                && rects[offset + RIGHT] == right
+                && rects[offset + BOTTOM] == bottom) {
+            return false;
+        }
+
+        final int[] union = mUnion;
+        // 原来位于边界的边往里收缩，需要重新计算
+        final boolean shrink = mValid[index] && !mUnionEmpty
+                && ((rects[offset + LEFT] == union[LEFT] && left > union[LEFT])
+                || (rects[offset + TOP] == union[TOP] && top > union[TOP])
+                || (rects[offset + RIGHT] == union[RIGHT] && right < union[RIGHT])
+                || (rects[offset + BOTTOM] == union[BOTTOM] && bottom < union[BOTTOM]));
+
+        rects[offset + LEFT] = left;
+        rects[offset + TOP] = top;
+        rects[offset + RIGHT] = right;
+        rects[offset + BOTTOM] = bottom;
+        mValid[index] = true;
+
+        if (shrink) {
+            return recompute();
+        }
+
+        mIncrementalCount++;
+        if (mUnionEmpty) {
+            union[LEFT] = left;
+            union[TOP] = top;
+            union[RIGHT] = right;
+            union[BOTTOM] = bottom;
+            mUnionEmpty = false;
+            return true;
+        }
+
+        boolean changed = false;
+        if (left < union[LEFT]) {
+            union[LEFT] = left;
+            changed = true;
+        }
+        if (top < union[TOP]) {
+            union[TOP] = top;
+            changed = true;
+        }
+        if (right > union[RIGHT]) {
+            union[RIGHT] = right;
+            changed = true;
+        }
+        if (bottom > union[BOTTOM]) {
+            union[BOTTOM] = bottom;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * 把指定下标的矩形设置为空，不参与并集的计算
+     *
+     * @return true-并集发生了变化
+     */
+    public boolean setEmpty(int index) {
+        checkIndex(index);
+        if (!mValid[index]) {
+            return false;
+        }
+
+        final boolean onEdge = isOnEdge(index);
+        mValid[index] = false;
+        return onEdge && recompute();
+    }
+
+    /**
+     * 把所有矩形设置为空，保留矩形的数量
+     *
+     * @return true-并集发生了变化
+     */
+    public boolean setAllEmpty() {
+        Arrays.fill(mValid, 0, mSize, false);
+        final boolean changed = !mUnionEmpty;
+        mUnionEmpty = true;
+        return changed;
+    }
+
+    /**
+     * 重新遍历所有矩形计算并集
+     *
+     * @return true-并集发生了变化
+     */
+    public boolean recompute() {
+        mFullCount++;
+        final int[] union = mUnion;
+        final int oldLeft = union[LEFT];
+        final int oldTop = union[TOP];
+        final int oldRight = union[RIGHT];
+        final int oldBottom = union[BOTTOM];
+        final boolean oldEmpty = mUnionEmpty;
+
+        boolean empty = true;
+        final int[] rects = mRects;
+        for (int i = 0; i < mSize; i++) {
+            if (!mValid[i]) continue;
+
+            final int offset = i * 4;
+            if (empty) {
+                System.arraycopy(rects, offset, union, 0, 4);
+                empty = false;
+            } else {
+                union[LEFT] = Math.min(union[LEFT], rects[offset + LEFT]);
+                union[TOP] = Math.min(union[TOP], rects[offset + TOP]);
+                union[RIGHT] = Math.max(union[RIGHT], rects[offset + RIGHT]);
+                union[BOTTOM] = Math.max(union[BOTTOM], rects[offset + BOTTOM]);
+            }
+        }
+        mUnionEmpty = empty;
+
+        if (empty || oldEmpty) {
+            return empty != oldEmpty;
+        }
+        return oldLeft != union[LEFT]
+                || oldTop != union[TOP]
+                || oldRight != union[RIGHT]
+                || oldBottom != union[BOTTOM];
+    }
+
+    /**
+     * 矩形的数量，包括空的矩形
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * 并集是否为空
+     */
+    public boolean isEmpty() {
+        return mUnionEmpty;
+    }
+
+    public int getLeft() {
+        return mUnion[LEFT];
+    }
+
+    public int getTop() {
+        return mUnion[TOP];
+    }
+
+    public int getRight() {
+        return mUnion[RIGHT];
+    }
+
+    public int getBottom() {
+        return mUnion[BOTTOM];
+    }
+
+    /**
+     * 返回遍历所有矩形重新计算并集的次数
+     */
+    public long getFullCount() {
+        return mFullCount;
+    }
+
+    /**
+     * 返回增量计算并集的次数
+     */
+    public long getIncrementalCount() {
+        return mIncrementalCount;
+    }
+
+    private boolean isOnEdge(int index) {
+        if (!mValid[index] || mUnionEmpty) {
+            return false;
+        }
+        final int offset = index * 4;
+        final int[] union = mUnion;
+        return mRects[offset + LEFT] == union[LEFT]
+                || mRects[offset + TOP] == union[TOP]
+                || mRects[offset + RIGHT] == union[RIGHT]
+                || mRects[offset + BOTTOM] == union[BOTTOM];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index:" + index + " size:" + mSize);
+        }
+    }
+}
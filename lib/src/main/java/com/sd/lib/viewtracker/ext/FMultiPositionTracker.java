@@ -0,0 +1,174 @@
+package com.sd.lib.viewtracker.ext;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sd.lib.viewtracker.FMultiTargetTracker;
+import com.sd.lib.viewtracker.ViewTracker;
+import com.sd.lib.viewtracker.applier.PositionApplier;
+import com.sd.lib.viewtracker.core.Anchor;
+import com.sd.lib.viewtracker.location.OffsetResolver;
+import com.sd.lib.viewtracker.updater.ViewUpdater;
+import com.sd.lib.viewtracker.updater.impl.OnLayoutChangeUpdater;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多个目标view的位置跟踪，每个目标view有自己的更新对象，只重新计算触发变化的目标view
+ */
+public class FMultiPositionTracker {
+    private final FMultiTargetTracker mTracker = new FMultiTargetTracker();
+
+    private ViewUpdater mSourceUpdater;
+    private final List<ViewUpdater> mTargetUpdaters = new ArrayList<>();
+    private boolean mIsStarted;
+
+    private ViewUpdater getSourceUpdater() {
+        if (mSourceUpdater == null) {
+            mSourceUpdater = createSourceUpdater();
+            mSourceUpdater.setUpdatable(new ViewUpdater.Updatable() {
+                @Override
+                public void update() {
+                    // 源view变化不影响目标view的位置，用缓存的并集重新计算即可
+                    mTracker.updateSource();
+                }
+            });
+        }
+        return mSourceUpdater;
+    }
+
+    /**
+     * 设置回调对象
+     */
+    public void setCallback(@Nullable FMultiTargetTracker.Callback callback) {
+        mTracker.setCallback(callback);
+    }
+
+    /**
+     * 设置源View
+     */
+    public void setSource(@Nullable View view) {
+        mTracker.setSource(view);
+        getSourceUpdater().setView(view);
+    }
+
+    /**
+     * 添加目标View
+     */
+    public void addTarget(@NonNull final View view) {
+        if (!mTracker.addTarget(view)) {
+            return;
+        }
+
+        final ViewUpdater updater = createTargetUpdater();
+        updater.setUpdatable(new ViewUpdater.Updatable() {
+            @Override
+            public void update() {
+                final View target = updater.getView();
+                if (target != null) {
+                    mTracker.updateTarget(target);
+                }
+            }
+        });
+        updater.setView(view);
+        mTargetUpdaters.add(updater);
+
+        if (mIsStarted) {
+            updater.start();
+            mTracker.updateTarget(view);
+        }
+    }
+
+    /**
+     * 移除目标View
+     */
+    public void removeTarget(@Nullable View view) {
+        if (view == null) {
+            return;
+        }
+
+        for (int i = 0; i < mTargetUpdaters.size(); i++) {
+            final ViewUpdater updater = mTargetUpdaters.get(i);
+            if (updater.getView() == view) {
+                updater.stop();
+                updater.setView(null);
+                mTargetUpdaters.remove(i);
+                break;
+            }
+        }
+
+        if (mTracker.removeTarget(view) && mIsStarted) {
+            mTracker.updateSource();
+        }
+    }
+
+    /**
+     * 设置追踪位置
+     */
+    public void setPosition(@NonNull ViewTracker.Position position) {
+        mTracker.setPosition(position);
+    }
+
+    /**
+     * 设置追踪锚点
+     */
+    public void setAnchor(@NonNull Anchor anchor) {
+        mTracker.setAnchor(anchor);
+    }
+
+    /**
+     * 设置位置应用对象
+     */
+    public void setPositionApplier(@Nullable PositionApplier applier) {
+        mTracker.setPositionApplier(applier);
+    }
+
+    /**
+     * 设置偏移计算对象
+     */
+    public void setOffsetResolver(@Nullable OffsetResolver resolver) {
+        mTracker.setOffsetResolver(resolver);
+    }
+
+    /**
+     * 开始追踪
+     */
+    public void start() {
+        mIsStarted = true;
+        getSourceUpdater().start();
+        for (ViewUpdater updater : mTargetUpdaters) {
+            updater.start();
+        }
+        mTracker.update();
+    }
+
+    /**
+     * 停止追踪
+     */
+    public void stop() {
+        mIsStarted = false;
+        getSourceUpdater().stop();
+        for (ViewUpdater updater : mTargetUpdaters) {
+            updater.stop();
+        }
+    }
+
+    /**
+     * 创建源View更新对象
+     */
+    @NonNull
+    protected ViewUpdater createSourceUpdater() {
+        return new OnLayoutChangeUpdater();
+    }
+
+    /**
+     * 创建目标View更新对象
+     */
+    @NonNull
+    protected ViewUpdater createTargetUpdater() {
+        return new OnLayoutChangeUpdater();
+    }
+}
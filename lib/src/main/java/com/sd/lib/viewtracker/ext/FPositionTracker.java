@@ -1,28 +1,64 @@
 package com.sd.lib.viewtracker.ext;
 
+import android.graphics.Rect;
 import android.view.View;
+import android.view.ViewTreeObserver;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.sd.lib.viewtracker.FViewTracker;
 import com.sd.lib.viewtracker.ViewTracker;
+import com.sd.lib.viewtracker.applier.PositionApplier;
+import com.sd.lib.viewtracker.core.Anchor;
+import com.sd.lib.viewtracker.core.MotionPredictor;
+import com.sd.lib.viewtracker.location.OffsetResolver;
+import com.sd.lib.viewtracker.metrics.TrackerMetrics;
+import com.sd.lib.viewtracker.multicast.PositionSubscriber;
+import com.sd.lib.viewtracker.multicast.Subscription;
+import com.sd.lib.viewtracker.trace.TraceFormat;
+import com.sd.lib.viewtracker.trace.TraceRecorder;
+import com.sd.lib.viewtracker.updater.FrameUpdatable;
+import com.sd.lib.viewtracker.updater.PreDrawDispatcher;
+import com.sd.lib.viewtracker.updater.ThrottleUpdatable;
 import com.sd.lib.viewtracker.updater.ViewUpdater;
+import com.sd.lib.viewtracker.updater.WindowWatcher;
 import com.sd.lib.viewtracker.updater.impl.OnLayoutChangeUpdater;
 
 /**
  * 位置跟踪
  */
 public class FPositionTracker {
-    private final ViewTracker mTracker = new FViewTracker();
+    private final FViewTracker mTracker = new FViewTracker();
 
     private ViewUpdater mSourceUpdater;
     private ViewUpdater mTargetUpdater;
 
+    private boolean mCoalesceUpdates;
+    private FrameUpdatable mFrameUpdatable;
+    private ThrottleUpdatable mThrottleUpdatable;
+    /** 是否限制更新频率，关闭后保留{@link #mThrottleUpdatable}复用 */
+    private boolean mThrottleEnabled;
+
+    /** 是否调用了{@link #start()} */
+    private boolean mIsStarted;
+    /** 是否调用{@link #setPaused(boolean)}暂停 */
+    private boolean mIsUserPaused;
+    /** 是否调用{@link #setLifecyclePaused(boolean)}暂停 */
+    private boolean mIsLifecyclePaused;
+    /** 是否因为目标View所在窗口不可见或者失去焦点暂停 */
+    private boolean mIsWindowPaused;
+    private WindowWatcher mWindowWatcher;
+
+    private boolean mCullingEnabled;
+    /** 是否因为不可见暂停了追踪 */
+    private boolean mIsCulledPaused;
+    private final Rect mCullingRect = new Rect();
+
     private ViewUpdater getSourceUpdater() {
         if (mSourceUpdater == null) {
             mSourceUpdater = createSourceUpdater();
-            mSourceUpdater.setUpdatable(mUpdatable);
+            mSourceUpdater.setUpdatable(mSourceUpdatable);
         }
         return mSourceUpdater;
     }
@@ -30,7 +66,7 @@ public class FPositionTracker {
     private ViewUpdater getTargetUpdater() {
         if (mTargetUpdater == null) {
             mTargetUpdater = createTargetUpdater();
-            mTargetUpdater.setUpdatable(mUpdatable);
+            mTargetUpdater.setUpdatable(mTargetUpdatable);
         }
         return mTargetUpdater;
     }
@@ -48,6 +84,9 @@ public class FPositionTracker {
     public void setSource(@Nullable View view) {
         mTracker.setSource(view);
         getSourceUpdater().setView(view);
+        if (mFrameUpdatable != null) {
+            mFrameUpdatable.setView(view);
+        }
     }
 
     /**
@@ -56,6 +95,49 @@ public class FPositionTracker {
     public void setTarget(@Nullable View view) {
         mTracker.setTarget(view);
         getTargetUpdater().setView(view);
+        if (mIsStarted && mWindowWatcher != null) {
+            mWindowWatcher.setView(view);
+        }
+    }
+
+    /**
+     * 重新绑定源View和目标View，如果已经开始追踪，绑定后继续追踪并更新一次
+     * <p>
+     * 和原来相同的View不会移除监听，也不会重新创建引用对象
+     */
+    public void bind(@Nullable View source, @Nullable View target) {
+        final boolean started = mIsStarted;
+        setSource(source);
+        setTarget(target);
+        if (started) {
+            start();
+        }
+    }
+
+    /**
+     * 恢复到刚创建时的状态：停止追踪，清空源View，目标View，回调和订阅，其他设置恢复默认值，
+     * 已经创建的更新对象会保留下来复用
+     */
+    public void reset() {
+        stop();
+        setPaused(false);
+        setLifecyclePaused(false);
+        setPauseOnWindowHidden(false);
+        setPauseOnFocusLoss(false);
+        setSource(null);
+        setTarget(null);
+        setCallback(null);
+        clearSubscriptions();
+        setPosition(ViewTracker.Position.TopRight);
+        setCullingEnabled(false);
+        setMetrics(null);
+        setPositionApplier(null);
+        setOffsetResolver(null);
+        setChangeDetectionEnabled(false);
+        setPredictor(null);
+        setTraceRecorder(null, 0);
+        setCoalesceUpdates(false);
+        setThrottle(0, 0);
     }
 
     /**
@@ -65,21 +147,379 @@ public class FPositionTracker {
         mTracker.setPosition(position);
     }
 
+    /**
+     * 设置追踪锚点
+     */
+    public void setAnchor(@NonNull Anchor anchor) {
+        mTracker.setAnchor(anchor);
+    }
+
+    /**
+     * 设置是否开启不可见时暂停追踪，默认false
+     * <p>
+     * 开启后，如果源view或者目标view不可见，则停止源View和目标View的更新对象，
+     * 只在目标View所在窗口每次绘制之前检查可见状态和可见区域，恢复可见后立即更新一次并重新开始更新对象，
+     * 同一个窗口中的所有暂停对象共用一个{@link ViewTreeObserver.OnPreDrawListener}
+     *
+     * @see FViewTracker#setCullingEnabled(boolean)
+     */
+    public void setCullingEnabled(boolean enabled) {
+        if (mCullingEnabled != enabled) {
+            mCullingEnabled = enabled;
+            mTracker.setCullingEnabled(enabled);
+            if (!enabled && mIsCulledPaused) {
+                resumeFromCulling();
+                mTracker.update();
+            }
+        }
+    }
+
+    /**
+     * 是否因为不可见暂停了追踪
+     */
+    public boolean isCulledPaused() {
+        return mIsCulledPaused;
+    }
+
+    /**
+     * 设置统计对象
+     *
+     * @see FViewTracker#setMetrics(TrackerMetrics)
+     */
+    public void setMetrics(@Nullable TrackerMetrics metrics) {
+        mTracker.setMetrics(metrics);
+    }
+
+    /**
+     * 设置位置应用对象
+     *
+     * @see FViewTracker#setPositionApplier(PositionApplier)
+     */
+    public void setPositionApplier(@Nullable PositionApplier applier) {
+        mTracker.setPositionApplier(applier);
+    }
+
+    /**
+     * 设置偏移计算对象
+     *
+     * @see FViewTracker#setOffsetResolver(OffsetResolver)
+     */
+    public void setOffsetResolver(@Nullable OffsetResolver resolver) {
+        mTracker.setOffsetResolver(resolver);
+    }
+
+    /**
+     * 使偏移计算对象缓存的信息失效
+     */
+    public void invalidateOffset() {
+        mTracker.invalidateOffset();
+    }
+
+    /**
+     * 设置是否开启变化检测，默认false
+     *
+     * @see FViewTracker#setChangeDetectionEnabled(boolean)
+     */
+    public void setChangeDetectionEnabled(boolean enabled) {
+        mTracker.setChangeDetectionEnabled(enabled);
+    }
+
+    /**
+     * 订阅位置
+     *
+     * @see FViewTracker#subscribe(PositionSubscriber, int)
+     */
+    @NonNull
+    public Subscription subscribe(@NonNull PositionSubscriber subscriber, int policy) {
+        return mTracker.subscribe(subscriber, policy);
+    }
+
+    /**
+     * 按照指定的间隔采样订阅位置
+     *
+     * @see FViewTracker#subscribeSampled(PositionSubscriber, long)
+     */
+    @NonNull
+    public Subscription subscribeSampled(@NonNull PositionSubscriber subscriber, long intervalMillis) {
+        return mTracker.subscribeSampled(subscriber, intervalMillis);
+    }
+
+    /**
+     * 取消所有订阅
+     *
+     * @see FViewTracker#clearSubscriptions()
+     */
+    public void clearSubscriptions() {
+        mTracker.clearSubscriptions();
+    }
+
+    /**
+     * 设置追踪记录器
+     *
+     * @see FViewTracker#setTraceRecorder(TraceRecorder, int)
+     */
+    public void setTraceRecorder(@Nullable TraceRecorder recorder, int trackerId) {
+        mTracker.setTraceRecorder(recorder, trackerId);
+    }
+
+    /**
+     * 设置位置预测对象
+     *
+     * @see FViewTracker#setPredictor(MotionPredictor)
+     */
+    public void setPredictor(@Nullable MotionPredictor predictor) {
+        mTracker.setPredictor(predictor);
+    }
+
+    /**
+     * 忽略变化检测，强制更新一次
+     *
+     * @return true-此次更新成功
+     */
+    public boolean forceUpdate() {
+        return mTracker.forceUpdate();
+    }
+
+    /**
+     * 返回因为位置未变化而跳过回调的次数
+     */
+    public long getSuppressedUpdateCount() {
+        return mTracker.getSuppressedUpdateCount();
+    }
+
+    /**
+     * 设置是否合并更新，默认false
+     * <p>
+     * 开启后，源View和目标View触发的更新只会标记需要更新，在源View所在窗口这一次绘制之前只执行一次更新
+     */
+    public void setCoalesceUpdates(boolean coalesce) {
+        if (mCoalesceUpdates != coalesce) {
+            mCoalesceUpdates = coalesce;
+            if (!coalesce && mFrameUpdatable != null) {
+                mFrameUpdatable.flush();
+            }
+        }
+    }
+
+    /**
+     * 设置限制更新频率，两次更新之间至少间隔指定的帧数和时长，限制期间的更新请求会在限制结束后补发一次
+     *
+     * @param frames        至少间隔的帧数，小于等于1并且minIntervalMs小于等于0表示不限制
+     * @param minIntervalMs 至少间隔的时长（毫秒）
+     */
+    public void setThrottle(int frames, long minIntervalMs) {
+        if (frames <= 1 && minIntervalMs <= 0) {
+            mThrottleEnabled = false;
+            if (mThrottleUpdatable != null) {
+                mThrottleUpdatable.cancel();
+            }
+            return;
+        }
+
+        if (mThrottleUpdatable == null) {
+            mThrottleUpdatable = new ThrottleUpdatable(mDispatchUpdatable);
+        }
+        mThrottleUpdatable.setFrameInterval(frames);
+        mThrottleUpdatable.setMinInterval(minIntervalMs);
+        mThrottleEnabled = true;
+    }
+
+    /**
+     * 如果有等待执行的合并更新，立即同步执行
+     *
+     * @return true-执行了更新
+     */
+    public boolean flushUpdate() {
+        return mFrameUpdatable != null && mFrameUpdatable.flush();
+    }
+
     /**
      * 开始追踪
      */
     public void start() {
+        mIsStarted = true;
+        if (mIsCulledPaused) {
+            removeCullingWatcher();
+            mIsCulledPaused = false;
+        }
+        if (mWindowWatcher != null) {
+            mWindowWatcher.setView(mTracker.getTarget());
+        }
         getSourceUpdater().start();
         getTargetUpdater().start();
+        cancelPendingUpdate();
         mTracker.update();
+        checkCulled();
     }
 
     /**
      * 停止追踪
      */
     public void stop() {
+        mIsStarted = false;
+        if (mWindowWatcher != null) {
+            mWindowWatcher.setView(null);
+        }
         getSourceUpdater().stop();
         getTargetUpdater().stop();
+        cancelPendingUpdate();
+        mTracker.resetPrediction();
+        if (mIsCulledPaused) {
+            removeCullingWatcher();
+            mIsCulledPaused = false;
+        }
+    }
+
+    /**
+     * 设置是否暂停追踪，暂停期间源View和目标View的更新对象移除监听，恢复后重新监听并更新一次
+     */
+    public void setPaused(boolean paused) {
+        mIsUserPaused = paused;
+        applyPaused();
+    }
+
+    /**
+     * 设置是否因为生命周期暂停追踪，和{@link #setPaused(boolean)}互不影响，只要有一个暂停就处于暂停状态
+     *
+     * @see TrackerLifecycleBinder
+     */
+    public void setLifecyclePaused(boolean paused) {
+        mIsLifecyclePaused = paused;
+        applyPaused();
+    }
+
+    /**
+     * 设置目标View所在窗口不可见时是否自动暂停追踪，默认false（需要API 18以上）
+     * <p>
+     * 和源View，目标View的更新对象类型无关，恢复可见后重新监听并更新一次
+     *
+     * @see WindowWatcher
+     */
+    public void setPauseOnWindowHidden(boolean pause) {
+        if (pause || mWindowWatcher != null) {
+            getWindowWatcher().setPauseOnWindowHidden(pause);
+        }
+    }
+
+    /**
+     * 设置目标View所在窗口失去焦点时是否自动暂停追踪，例如被其他窗口覆盖，默认false（需要API 18以上）
+     */
+    public void setPauseOnFocusLoss(boolean pause) {
+        if (pause || mWindowWatcher != null) {
+            getWindowWatcher().setPauseOnFocusLoss(pause);
+        }
+    }
+
+    private WindowWatcher getWindowWatcher() {
+        if (mWindowWatcher == null) {
+            mWindowWatcher = new WindowWatcher(new WindowWatcher.Callback() {
+                @Override
+                public void onPausedChanged(boolean paused) {
+                    mIsWindowPaused = paused;
+                    applyPaused();
+                }
+            });
+            if (mIsStarted) {
+                mWindowWatcher.setView(mTracker.getTarget());
+            }
+        }
+        return mWindowWatcher;
+    }
+
+    private void applyPaused() {
+        final boolean paused = mIsUserPaused || mIsLifecyclePaused || mIsWindowPaused;
+        getSourceUpdater().setPaused(paused);
+        getTargetUpdater().setPaused(paused);
+        if (paused) {
+            cancelPendingUpdate();
+        }
+    }
+
+    /**
+     * 是否暂停了追踪
+     */
+    public boolean isPaused() {
+        return getSourceUpdater().isPaused() && getTargetUpdater().isPaused();
+    }
+
+    private void checkCulled() {
+        if (mCullingEnabled && !mIsCulledPaused && mTracker.isCulled()) {
+            pauseForCulling();
+        }
+    }
+
+    private void pauseForCulling() {
+        final View target = mTracker.getTarget();
+        if (target == null) {
+            return;
+        }
+
+        final ViewTreeObserver observer = target.getViewTreeObserver();
+        if (!observer.isAlive()) {
+            return;
+        }
+
+        getSourceUpdater().stop();
+        getTargetUpdater().stop();
+        cancelPendingUpdate();
+
+        PreDrawDispatcher.register(observer, mCullingReceiver);
+        mIsCulledPaused = true;
+    }
+
+    private void resumeFromCulling() {
+        removeCullingWatcher();
+        mIsCulledPaused = false;
+        getSourceUpdater().start();
+        getTargetUpdater().start();
+    }
+
+    private void removeCullingWatcher() {
+        PreDrawDispatcher.unregister(mCullingReceiver);
+    }
+
+    /**
+     * 暂停期间每次绘制之前检查是否恢复可见，只检查可见状态和目标view的可见区域，恢复可见后才计算位置
+     */
+    private void checkResume() {
+        if (!mIsCulledPaused) {
+            return;
+        }
+
+        if (isTrackingVisible()) {
+            resumeFromCulling();
+            mTracker.invalidateCulling();
+            mTracker.update();
+        }
+    }
+
+    private boolean isTrackingVisible() {
+        final View source = mTracker.getSource();
+        final View target = mTracker.getTarget();
+        if (source == null || target == null) {
+            return false;
+        }
+
+        return source.getVisibility() == View.VISIBLE
+                && target.getVisibility() == View.VISIBLE
+                && target.getGlobalVisibleRect(mCullingRect);
+    }
+
+    private void cancelPendingUpdate() {
+        if (mFrameUpdatable != null) {
+            mFrameUpdatable.cancel();
+        }
+        if (mThrottleUpdatable != null) {
+            mThrottleUpdatable.cancel();
+        }
+    }
+
+    private FrameUpdatable getFrameUpdatable() {
+        if (mFrameUpdatable == null) {
+            mFrameUpdatable = new FrameUpdatable(mTrackerUpdatable);
+            mFrameUpdatable.setView(mTracker.getSource());
+        }
+        return mFrameUpdatable;
     }
 
     /**
@@ -98,10 +538,85 @@ public class FPositionTracker {
         return new OnLayoutChangeUpdater();
     }
 
-    private final ViewUpdater.Updatable mUpdatable = new ViewUpdater.Updatable() {
+    private final ViewUpdater.ScrollUpdatable mTrackerUpdatable = new ViewUpdater.ScrollUpdatable() {
         @Override
         public void update() {
             mTracker.update();
+            checkCulled();
+        }
+
+        @Override
+        public void updateScroll() {
+            mTracker.updateScroll();
+            checkCulled();
+        }
+    };
+
+    private final PreDrawDispatcher.Receiver mCullingReceiver = new PreDrawDispatcher.Receiver() {
+        @Override
+        public void onPreDraw() {
+            checkResume();
+        }
+    };
+
+    private final ViewUpdater.ScrollUpdatable mDispatchUpdatable = new ViewUpdater.ScrollUpdatable() {
+        @Override
+        public void update() {
+            if (mCoalesceUpdates) {
+                getFrameUpdatable().update();
+            } else {
+                mTrackerUpdatable.update();
+            }
+        }
+
+        @Override
+        public void updateScroll() {
+            if (mCoalesceUpdates) {
+                getFrameUpdatable().updateScroll();
+            } else {
+                mTrackerUpdatable.updateScroll();
+            }
         }
     };
+
+    private final TrackerUpdatable mSourceUpdatable = new TrackerUpdatable(TraceFormat.TRIGGER_SOURCE);
+    private final TrackerUpdatable mTargetUpdatable = new TrackerUpdatable(TraceFormat.TRIGGER_TARGET);
+
+    private final class TrackerUpdatable implements ViewUpdater.ScrollUpdatable, ViewUpdater.ViewCollectedCallback {
+        /** 写入追踪记录的触发来源 */
+        private final int mTrigger;
+
+        TrackerUpdatable(int trigger) {
+            mTrigger = trigger;
+        }
+
+        @Override
+        public void update() {
+            mTracker.setTraceTrigger(mTrigger);
+            if (mThrottleEnabled) {
+                mThrottleUpdatable.update();
+            } else {
+                mDispatchUpdatable.update();
+            }
+        }
+
+        @Override
+        public void updateScroll() {
+            mTracker.setTraceTrigger(mTrigger);
+            if (mThrottleEnabled) {
+                mThrottleUpdatable.updateScroll();
+            } else {
+                mDispatchUpdatable.updateScroll();
+            }
+        }
+
+        @Override
+        public int onViewCollected(@NonNull ViewUpdater updater) {
+            // 源View或者目标View被回收之后无法继续追踪，停止另一个View的更新对象
+            final ViewUpdater other = updater == mSourceUpdater ? mTargetUpdater : mSourceUpdater;
+            final int count = other != null && other.isStarted() && !other.isPaused() ? 1 : 0;
+            stop();
+            return count;
+        }
+    }
 }
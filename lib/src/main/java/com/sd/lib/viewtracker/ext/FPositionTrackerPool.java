@@ -0,0 +1,139 @@
+package com.sd.lib.viewtracker.ext;
+
+import androidx.annotation.NonNull;
+
+/**
+ * {@link FPositionTracker}对象池，用于列表item频繁绑定和回收的场景
+ * <p>
+ * {@link #release(FPositionTracker)}会调用{@link FPositionTracker#reset()}，
+ * 复用的对象保留已经创建的更新对象和监听对象，只能在主线程使用
+ */
+public class FPositionTrackerPool {
+    private final FPositionTracker[] mPool;
+    private int mSize;
+
+    private long mAcquireCount;
+    private long mHitCount;
+    private long mDropCount;
+
+    /**
+     * @param maxSize 最多缓存的对象数量
+     */
+    public FPositionTrackerPool(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be > 0");
+        }
+        mPool = new FPositionTracker[maxSize];
+    }
+
+    /**
+     * 获取一个对象，对象池为空的时候创建新的对象
+     */
+    @NonNull
+    public FPositionTracker acquire() {
+        mAcquireCount++;
+        if (mSize > 0) {
+            final int index = --mSize;
+            final FPositionTracker tracker = mPool[index];
+            mPool[index] = null;
+            mHitCount++;
+            return tracker;
+        }
+        return createTracker();
+    }
+
+    /**
+     * 回收对象，回收后不要再使用这个对象
+     *
+     * @return true-放入了对象池，false-对象池已满，对象被丢弃
+     */
+    public boolean release(@NonNull FPositionTracker tracker) {
+        for (int i = 0; i < mSize; i++) {
+            if (mPool[i] == tracker) {
+                throw new IllegalStateException("Already in the pool!");
+            }
+        }
+
+        tracker.reset();
+        if (mSize < mPool.length) {
+            mPool[mSize++] = tracker;
+            return true;
+        }
+        mDropCount++;
+        return false;
+    }
+
+    /**
+     * 缩小对象池，最多保留指定数量的对象
+     */
+    public void trim(int maxSize) {
+        if (maxSize < 0) {
+            maxSize = 0;
+        }
+        while (mSize > maxSize) {
+            mPool[--mSize] = null;
+        }
+    }
+
+    /**
+     * 返回对象池中当前的对象数量
+     */
+    public int getPoolSize() {
+        return mSize;
+    }
+
+    /**
+     * 返回对象池最多缓存的对象数量
+     */
+    public int getMaxPoolSize() {
+        return mPool.length;
+    }
+
+    /**
+     * 返回调用{@link #acquire()}的次数
+     */
+    public long getAcquireCount() {
+        return mAcquireCount;
+    }
+
+    /**
+     * 返回{@link #acquire()}从对象池中取到对象的次数
+     */
+    public long getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * 返回因为对象池已满而丢弃的次数
+     */
+    public long getDropCount() {
+        return mDropCount;
+    }
+
+    /**
+     * 返回命中率，0-1
+     */
+    public float getHitRate() {
+        return mAcquireCount == 0 ? 0 : (float) mHitCount / mAcquireCount;
+    }
+
+    /**
+     * 创建新的对象
+     */
+    @NonNull
+    protected FPositionTracker createTracker() {
+        return new FPositionTracker();
+    }
+
+    @Override
+    public String toString() {
+        return "FPositionTrackerPool{" +
+                "size=" + mSize +
+                ", maxSize=" + mPool.length +
+                ", acquire=" + mAcquireCount +
+                ", hit=" + mHitCount +
+                ", drop=" + mDropCount +
+                ", hitRate=" + getHitRate() +
+                '}';
+    }
+}
@@ -0,0 +1,426 @@
+package com.sd.lib.viewtracker.ext;
+
+import android.view.View;
+import android.view.ViewParent;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sd.lib.viewtracker.FViewTracker;
+import com.sd.lib.viewtracker.ViewTracker;
+import com.sd.lib.viewtracker.applier.PositionApplier;
+import com.sd.lib.viewtracker.core.Anchor;
+import com.sd.lib.viewtracker.updater.ViewUpdater;
+import com.sd.lib.viewtracker.updater.impl.OnLayoutChangeUpdater;
+import com.sd.lib.viewtracker.utils.ViewUtils;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多个源view追踪同一个目标view
+ * <p>
+ * 只有一个目标view更新对象，每次触发只计算一次目标view在屏幕上的位置，
+ * 每个源view按照自己的{@link ViewTracker.Position}和父布局用这个位置计算，
+ * 同一次更新中相同的父布局只计算一次在屏幕上的位置
+ */
+public class FTargetHub {
+    private WeakReference<View> mTarget;
+    private ViewUpdater mTargetUpdater;
+    private final List<SourceEntry> mSources = new ArrayList<>();
+    private boolean mIsStarted;
+    private boolean mChangeDetectionEnabled;
+
+    private final int[] mTargetLocation = {0, 0};
+    private final int[] mParentLocation = {0, 0};
+
+    /** 同一次更新中已经计算过位置的父布局 */
+    private View[] mPassParents = new View[4];
+    private int[] mPassLocations = new int[4 * 2];
+    private int mPassCount;
+
+    private long mTargetLocateCount;
+
+    private ViewUpdater getTargetUpdater() {
+        if (mTargetUpdater == null) {
+            mTargetUpdater = createTargetUpdater();
+            mTargetUpdater.setUpdatable(new ViewUpdater.Updatable() {
+                @Override
+                public void update() {
+                    FTargetHub.this.update();
+                }
+            });
+        }
+        return mTargetUpdater;
+    }
+
+    /**
+     * 设置目标View
+     */
+    public void setTarget(@Nullable View view) {
+        final View old = getTarget();
+        if (old == view) {
+            return;
+        }
+
+        mTarget = view == null ? null : new WeakReference<>(view);
+        getTargetUpdater().setView(view);
+        for (SourceEntry entry : mSources) {
+            entry.hasLastResult = false;
+            if (entry.callback != null) {
+                entry.callback.onTargetChanged(old, view);
+            }
+        }
+    }
+
+    @Nullable
+    public View getTarget() {
+        return mTarget == null ? null : mTarget.get();
+    }
+
+    /**
+     * 添加源View，默认追踪位置是{@link ViewTracker.Position#TopRight}
+     *
+     * @return true-添加成功，false-已经添加过了
+     */
+    public boolean addSource(@NonNull View source, @Nullable ViewTracker.Callback callback) {
+        if (findSource(source) != null) {
+            return false;
+        }
+
+        final SourceEntry entry = new SourceEntry(source, callback);
+        entry.updater = createSourceUpdater();
+        entry.updater.setUpdatable(new ViewUpdater.Updatable() {
+            @Override
+            public void update() {
+                updateSourceEntry(entry);
+            }
+        });
+        entry.updater.setView(source);
+        mSources.add(entry);
+
+        if (callback != null) {
+            callback.onSourceChanged(null, source);
+        }
+
+        if (mIsStarted) {
+            entry.updater.start();
+            updateSourceEntry(entry);
+        }
+        return true;
+    }
+
+    /**
+     * 移除源View
+     *
+     * @return true-移除成功
+     */
+    public boolean removeSource(@Nullable View source) {
+        final SourceEntry entry = findSource(source);
+        if (entry == null) {
+            return false;
+        }
+
+        mSources.remove(entry);
+        entry.updater.stop();
+        entry.updater.setView(null);
+        if (entry.callback != null) {
+            entry.callback.onSourceChanged(source, null);
+        }
+        return true;
+    }
+
+    /**
+     * 返回源View的数量
+     */
+    public int getSourceCount() {
+        return mSources.size();
+    }
+
+    /**
+     * 设置源View的追踪位置
+     */
+    public void setPosition(@NonNull View source, @NonNull ViewTracker.Position position) {
+        setAnchor(source, FViewTracker.getAnchor(position));
+    }
+
+    /**
+     * 设置源View的追踪锚点
+     */
+    public void setAnchor(@NonNull View source, @NonNull Anchor anchor) {
+        final SourceEntry entry = findSource(source);
+        if (entry != null && entry.anchor != anchor) {
+            entry.anchor = anchor;
+            entry.hasLastResult = false;
+        }
+    }
+
+    /**
+     * 设置源View的位置应用对象
+     */
+    public void setPositionApplier(@NonNull View source, @Nullable PositionApplier applier) {
+        final SourceEntry entry = findSource(source);
+        if (entry != null) {
+            entry.applier = applier;
+            entry.hasLastResult = false;
+        }
+    }
+
+    /**
+     * 设置是否开启变化检测，默认false
+     * <p>
+     * 开启后，如果源view计算出来的位置和上一次回调的相同，并且源view当前的位置（设置了位置应用对象时还包括平移值）
+     * 和上一次回调之后的相同，则不会回调
+     *
+     * @see FViewTracker#setChangeDetectionEnabled(boolean)
+     */
+    public void setChangeDetectionEnabled(boolean enabled) {
+        if (mChangeDetectionEnabled != enabled) {
+            mChangeDetectionEnabled = enabled;
+            for (SourceEntry entry : mSources) {
+                entry.hasLastResult = false;
+            }
+        }
+    }
+
+    /**
+     * 是否开启了变化检测
+     */
+    public boolean isChangeDetectionEnabled() {
+        return mChangeDetectionEnabled;
+    }
+
+    /**
+     * 返回计算目标view在屏幕上位置的次数
+     */
+    public long getTargetLocateCount() {
+        return mTargetLocateCount;
+    }
+
+    /**
+     * 开始追踪
+     */
+    public void start() {
+        mIsStarted = true;
+        getTargetUpdater().start();
+        for (SourceEntry entry : mSources) {
+            entry.updater.start();
+        }
+        update();
+    }
+
+    /**
+     * 停止追踪
+     */
+    public void stop() {
+        mIsStarted = false;
+        getTargetUpdater().stop();
+        for (SourceEntry entry : mSources) {
+            entry.updater.stop();
+        }
+    }
+
+    /**
+     * 计算一次目标view的位置，然后更新所有源view
+     *
+     * @return 更新成功的源view数量
+     */
+    public int update() {
+        final View target = locateTarget();
+        if (target == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int i = mSources.size() - 1; i >= 0; i--) {
+            final SourceEntry entry = mSources.get(i);
+            final View source = entry.source.get();
+            if (source == null) {
+                mSources.remove(i);
+                entry.updater.stop();
+                continue;
+            }
+            if (updateSource(entry, source, target)) {
+                count++;
+            }
+        }
+        endPass();
+        return count;
+    }
+
+    private void updateSourceEntry(SourceEntry entry) {
+        final View source = entry.source.get();
+        if (source == null) {
+            return;
+        }
+
+        final View target = locateTarget();
+        if (target == null) {
+            return;
+        }
+        updateSource(entry, source, target);
+        endPass();
+    }
+
+    @Nullable
+    private View locateTarget() {
+        final View target = getTarget();
+        if (target == null || !ViewUtils.isAttached(target)) {
+            return null;
+        }
+        target.getLocationOnScreen(mTargetLocation);
+        mTargetLocateCount++;
+        return target;
+    }
+
+    private boolean updateSource(SourceEntry entry, View source, View target) {
+        final ViewTracker.Callback callback = entry.callback;
+        if (callback == null && entry.applier == null) {
+            return false;
+        }
+
+        if (callback != null && !callback.canUpdate(source, target)) {
+            return false;
+        }
+
+        final ViewParent parent = source.getParent();
+        if (!(parent instanceof View) || !ViewUtils.isAttached(source)) {
+            return false;
+        }
+
+        if (source.getWidth() <= 0 || source.getHeight() <= 0) {
+            return false;
+        }
+
+        locateParent((View) parent);
+        final int offsetX = mTargetLocation[0] - mParentLocation[0];
+        final int offsetY = mTargetLocation[1] - mParentLocation[1];
+
+        final Anchor anchor = entry.anchor;
+        final int x = anchor.computeX(offsetX, target.getWidth(), source.getWidth(), source.getLeft());
+        final int y = anchor.computeY(offsetY, target.getHeight(), source.getHeight(), source.getTop());
+
+        if (mChangeDetectionEnabled && entry.isSameAsLastResult(x, y, source)) {
+            return true;
+        }
+
+        if (entry.applier != null) {
+            entry.applier.apply(x, y, source);
+        }
+        if (callback != null) {
+            callback.onUpdate(x, y, source, target);
+        }
+        if (mChangeDetectionEnabled) {
+            // 位置应用对象和回调可能移动了源view，保存移动之后的状态
+            entry.saveLastResult(x, y, source);
+        }
+        return true;
+    }
+
+    /**
+     * 计算父布局在屏幕上的位置，保存到{@link #mParentLocation}，同一次更新中相同的父布局只计算一次
+     */
+    private void locateParent(View parent) {
+        for (int i = 0; i < mPassCount; i++) {
+            if (mPassParents[i] == parent) {
+                mParentLocation[0] = mPassLocations[i * 2];
+                mParentLocation[1] = mPassLocations[i * 2 + 1];
+                return;
+            }
+        }
+
+        parent.getLocationOnScreen(mParentLocation);
+        if (mPassCount == mPassParents.length) {
+            final View[] parents = new View[mPassCount * 2];
+            System.arraycopy(mPassParents, 0, parents, 0, mPassCount);
+            mPassParents = parents;
+
+            final int[] locations = new int[mPassCount * 4];
+            System.arraycopy(mPassLocations, 0, locations, 0, mPassCount * 2);
+            mPassLocations = locations;
+        }
+        mPassParents[mPassCount] = parent;
+        mPassLocations[mPassCount * 2] = mParentLocation[0];
+        mPassLocations[mPassCount * 2 + 1] = mParentLocation[1];
+        mPassCount++;
+    }
+
+    private void endPass() {
+        for (int i = 0; i < mPassCount; i++) {
+            mPassParents[i] = null;
+        }
+        mPassCount = 0;
+    }
+
+    @Nullable
+    private SourceEntry findSource(@Nullable View source) {
+        if (source == null) {
+            return null;
+        }
+        for (SourceEntry entry : mSources) {
+            if (entry.source.get() == source) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 创建目标View更新对象
+     */
+    @NonNull
+    protected ViewUpdater createTargetUpdater() {
+        return new OnLayoutChangeUpdater();
+    }
+
+    /**
+     * 创建源View更新对象
+     */
+    @NonNull
+    protected ViewUpdater createSourceUpdater() {
+        return new OnLayoutChangeUpdater();
+    }
+
+    private static final class SourceEntry {
+        final WeakReference<View> source;
+        final ViewTracker.Callback callback;
+        Anchor anchor = FViewTracker.getAnchor(ViewTracker.Position.TopRight);
+        PositionApplier applier;
+        ViewUpdater updater;
+
+        boolean hasLastResult;
+        int lastX;
+        int lastY;
+        int lastSourceLeft;
+        int lastSourceTop;
+        float lastSourceTranslationX;
+        float lastSourceTranslationY;
+
+        SourceEntry(View source, ViewTracker.Callback callback) {
+            this.source = new WeakReference<>(source);
+            this.callback = callback;
+        }
+
+        boolean isSameAsLastResult(int x, int y, View source) {
+            return hasLastResult
+                    && lastX == x
+                    && lastY == y
+                    && lastSourceLeft == source.getLeft()
+                    && lastSourceTop == source.getTop()
+                    && (applier == null
+                    || (lastSourceTranslationX == source.getTranslationX()
+                    && lastSourceTranslationY == source.getTranslationY()));
+        }
+
+        void saveLastResult(int x, int y, View source) {
+            hasLastResult = true;
+            lastX = x;
+            lastY = y;
+            lastSourceLeft = source.getLeft();
+            lastSourceTop = source.getTop();
+            lastSourceTranslationX = source.getTranslationX();
+            lastSourceTranslationY = source.getTranslationY();
+        }
+    }
+}
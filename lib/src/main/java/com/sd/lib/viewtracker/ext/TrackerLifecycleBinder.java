@@ -0,0 +1,70 @@
+package com.sd.lib.viewtracker.ext;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+/**
+ * 根据{@link LifecycleOwner}的生命周期自动暂停和恢复{@link FPositionTracker}
+ * <p>
+ * 通过{@link FPositionTracker#setLifecyclePaused(boolean)}暂停，不会覆盖{@link FPositionTracker#setPaused(boolean)}的状态
+ * <p>
+ * {@link Lifecycle.Event#ON_STOP}暂停，{@link Lifecycle.Event#ON_START}恢复，{@link Lifecycle.Event#ON_DESTROY}停止追踪并解除绑定
+ * <p>
+ * 库只在编译期依赖androidx.lifecycle，由使用方提供
+ */
+public class TrackerLifecycleBinder implements LifecycleEventObserver {
+    private final FPositionTracker mTracker;
+    private Lifecycle mLifecycle;
+
+    public TrackerLifecycleBinder(@NonNull FPositionTracker tracker) {
+        mTracker = tracker;
+    }
+
+    /**
+     * 绑定生命周期，如果生命周期还未到{@link Lifecycle.State#STARTED}，则先暂停
+     */
+    public void bind(@NonNull LifecycleOwner owner) {
+        unbind();
+
+        final Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+
+        mLifecycle = lifecycle;
+        mTracker.setLifecyclePaused(!lifecycle.getCurrentState().isAtLeast(Lifecycle.State.STARTED));
+        lifecycle.addObserver(this);
+    }
+
+    /**
+     * 解除绑定，并恢复追踪
+     */
+    public void unbind() {
+        if (mLifecycle != null) {
+            mLifecycle.removeObserver(this);
+            mLifecycle = null;
+            mTracker.setLifecyclePaused(false);
+        }
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        switch (event) {
+            case ON_START:
+                mTracker.setLifecyclePaused(false);
+                break;
+            case ON_STOP:
+                mTracker.setLifecyclePaused(true);
+                break;
+            case ON_DESTROY:
+                source.getLifecycle().removeObserver(this);
+                mLifecycle = null;
+                mTracker.stop();
+                break;
+            default:
+                break;
+        }
+    }
+}
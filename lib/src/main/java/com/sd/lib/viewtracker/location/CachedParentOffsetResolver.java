@@ -0,0 +1,179 @@
+package com.sd.lib.viewtracker.location;
+
+import android.view.View;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 缓存parent在屏幕上的位置，每次只计算target在屏幕上的位置
+ * <p>
+ * parent或者它的祖先布局位置变化，祖先布局发生滚动，或者parent的attach状态变化时缓存失效；
+ * 窗口中其他view的滚动（例如target所在的列表）不会让缓存失效；
+ * 如果祖先布局发生了平移等不会触发布局和滚动变化的移动，需要手动调用{@link #invalidate()}
+ */
+public class CachedParentOffsetResolver implements ReleasableOffsetResolver {
+    private final int[] mLocationParent = {0, 0};
+    private final int[] mLocationTarget = {0, 0};
+
+    private WeakReference<View> mParent;
+    private final List<WeakReference<View>> mListAncestor = new ArrayList<>();
+    /** 缓存时祖先布局（不包括parent）的滚动值，[scrollX, scrollY, ...] */
+    private int[] mAncestorScroll = new int[16];
+    private WeakReference<ViewTreeObserver> mObserver;
+    private boolean mIsValid;
+
+    @Override
+    public boolean resolve(@NonNull View parent, @NonNull View target, @NonNull int[] outOffset) {
+        if (getParent() != parent) {
+            setParent(parent);
+        }
+
+        if (!mIsValid) {
+            parent.getLocationOnScreen(mLocationParent);
+            saveAncestorScroll();
+            mIsValid = true;
+        }
+
+        target.getLocationOnScreen(mLocationTarget);
+        outOffset[0] = mLocationTarget[0] - mLocationParent[0];
+        outOffset[1] = mLocationTarget[1] - mLocationParent[1];
+        return true;
+    }
+
+    @Override
+    public void invalidate() {
+        mIsValid = false;
+    }
+
+    /**
+     * 是否有有效的缓存
+     */
+    public boolean isValid() {
+        return mIsValid;
+    }
+
+    /**
+     * 移除所有添加的监听
+     */
+    @Override
+    public void release() {
+        setParent(null);
+    }
+
+    /**
+     * parent在屏幕上的位置只受祖先布局滚动的影响，parent自己的滚动只影响它的子view
+     */
+    private void saveAncestorScroll() {
+        final int size = mListAncestor.size();
+        if (mAncestorScroll.length < size * 2) {
+            mAncestorScroll = new int[size * 2];
+        }
+        for (int i = 1; i < size; i++) {
+            final View view = mListAncestor.get(i).get();
+            mAncestorScroll[i * 2] = view == null ? 0 : view.getScrollX();
+            mAncestorScroll[i * 2 + 1] = view == null ? 0 : view.getScrollY();
+        }
+    }
+
+    private boolean isAncestorScrollChanged() {
+        for (int i = 1; i < mListAncestor.size(); i++) {
+            final View view = mListAncestor.get(i).get();
+            if (view == null) {
+                return true;
+            }
+            if (view.getScrollX() != mAncestorScroll[i * 2]
+                    || view.getScrollY() != mAncestorScroll[i * 2 + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private View getParent() {
+        return mParent == null ? null : mParent.get();
+    }
+
+    private void setParent(View parent) {
+        final View old = getParent();
+        if (old != null) {
+            old.removeOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        }
+        for (WeakReference<View> item : mListAncestor) {
+            final View view = item.get();
+            if (view != null) {
+                view.removeOnLayoutChangeListener(mOnLayoutChangeListener);
+            }
+        }
+        mListAncestor.clear();
+
+        final ViewTreeObserver oldObserver = mObserver == null ? null : mObserver.get();
+        if (oldObserver != null && oldObserver.isAlive()) {
+            oldObserver.removeOnScrollChangedListener(mOnScrollChangedListener);
+        }
+        mObserver = null;
+
+        mParent = parent == null ? null : new WeakReference<>(parent);
+        mIsValid = false;
+
+        if (parent != null) {
+            parent.addOnAttachStateChangeListener(mOnAttachStateChangeListener);
+
+            // 祖先布局滚动不会触发布局变化
+            final ViewTreeObserver observer = parent.getViewTreeObserver();
+            if (observer.isAlive()) {
+                observer.addOnScrollChangedListener(mOnScrollChangedListener);
+                mObserver = new WeakReference<>(observer);
+            }
+
+            View view = parent;
+            while (true) {
+                view.addOnLayoutChangeListener(mOnLayoutChangeListener);
+                mListAncestor.add(new WeakReference<>(view));
+
+                final ViewParent viewParent = view.getParent();
+                if (viewParent instanceof View) {
+                    view = (View) viewParent;
+                } else {
+                    break;
+                }
+            }
+        }
+    }
+
+    private final View.OnLayoutChangeListener mOnLayoutChangeListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            if (left != oldLeft || top != oldTop) {
+                invalidate();
+            }
+        }
+    };
+
+    private final ViewTreeObserver.OnScrollChangedListener mOnScrollChangedListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            if (mIsValid && isAncestorScrollChanged()) {
+                invalidate();
+            }
+        }
+    };
+
+    private final View.OnAttachStateChangeListener mOnAttachStateChangeListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            // 祖先布局可能已经变化，重新添加监听
+            setParent(v);
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            invalidate();
+        }
+    };
+}
@@ -0,0 +1,115 @@
+package com.sd.lib.viewtracker.location;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * 查找并缓存parent和target最近的公共祖先布局，只沿着两条到公共祖先布局的分支累加偏移（包括滚动和变换），
+ * 不需要一直计算到屏幕
+ * <p>
+ * parent或者target的attach状态变化时缓存失效；如果缓存的公共祖先布局已经不是它们的祖先，
+ * 计算的时候会自动重新查找；如果没有公共祖先布局（例如在不同的窗口），则使用{@link ScreenOffsetResolver}计算
+ */
+public class CommonAncestorOffsetResolver implements ReleasableOffsetResolver {
+    private final float[] mPointParent = {0, 0};
+    private final float[] mPointTarget = {0, 0};
+
+    private WeakReference<View> mParent;
+    private WeakReference<View> mTarget;
+    private WeakReference<View> mAncestor;
+
+    private ScreenOffsetResolver mScreenResolver;
+
+    @Override
+    public boolean resolve(@NonNull View parent, @NonNull View target, @NonNull int[] outOffset) {
+        if (get(mParent) != parent || get(mTarget) != target) {
+            setViews(parent, target);
+        }
+
+        View ancestor = get(mAncestor);
+        if (ancestor == null || !mapBranches(parent, target, ancestor)) {
+            ancestor = ViewOffsets.findCommonAncestor(parent, target);
+            mAncestor = ancestor == null ? null : new WeakReference<>(ancestor);
+            if (ancestor == null || !mapBranches(parent, target, ancestor)) {
+                return getScreenResolver().resolve(parent, target, outOffset);
+            }
+        }
+
+        outOffset[0] = ViewOffsets.round(mPointTarget[0]) - ViewOffsets.round(mPointParent[0]);
+        outOffset[1] = ViewOffsets.round(mPointTarget[1]) - ViewOffsets.round(mPointParent[1]);
+        return true;
+    }
+
+    @Override
+    public void invalidate() {
+        mAncestor = null;
+    }
+
+    /**
+     * 返回缓存的公共祖先布局
+     */
+    public View getCommonAncestor() {
+        return get(mAncestor);
+    }
+
+    /**
+     * 移除所有添加的监听
+     */
+    @Override
+    public void release() {
+        setViews(null, null);
+    }
+
+    private boolean mapBranches(View parent, View target, View ancestor) {
+        return ViewOffsets.mapToAncestor(parent, ancestor, mPointParent)
+                && ViewOffsets.mapToAncestor(target, ancestor, mPointTarget);
+    }
+
+    private void setViews(View parent, View target) {
+        final View oldParent = get(mParent);
+        if (oldParent != null) {
+            oldParent.removeOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        }
+        final View oldTarget = get(mTarget);
+        if (oldTarget != null) {
+            oldTarget.removeOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        }
+
+        mParent = parent == null ? null : new WeakReference<>(parent);
+        mTarget = target == null ? null : new WeakReference<>(target);
+        mAncestor = null;
+
+        if (parent != null) {
+            parent.addOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        }
+        if (target != null && target != parent) {
+            target.addOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        }
+    }
+
+    private ScreenOffsetResolver getScreenResolver() {
+        if (mScreenResolver == null) {
+            mScreenResolver = new ScreenOffsetResolver();
+        }
+        return mScreenResolver;
+    }
+
+    private static View get(WeakReference<View> reference) {
+        return reference == null ? null : reference.get();
+    }
+
+    private final View.OnAttachStateChangeListener mOnAttachStateChangeListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            invalidate();
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            invalidate();
+        }
+    };
+}
@@ -0,0 +1,153 @@
+package com.sd.lib.viewtracker.location;
+
+import android.graphics.Matrix;
+import android.view.View;
+import android.view.ViewParent;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在一次批量计算中缓存每个view在根布局坐标系中的位置，多个追踪对象共用同一个对象时，
+ * 公共的祖先布局只计算一次
+ * <p>
+ * 在{@link #beginPass()}和{@link #endPass()}之间计算的结果会被缓存，不在批量计算中时每次计算后立即清空缓存
+ */
+public class MemoOffsetResolver implements OffsetResolver {
+    private final Map<View, Entry> mMapEntry = new IdentityHashMap<>();
+    private final List<Entry> mPool = new ArrayList<>();
+    private int mPoolIndex;
+
+    private boolean mIsInPass;
+    private final float[] mPoint = {0, 0};
+
+    private ScreenOffsetResolver mScreenResolver;
+
+    /**
+     * 开始批量计算
+     */
+    public void beginPass() {
+        clear();
+        mIsInPass = true;
+    }
+
+    /**
+     * 结束批量计算，清空缓存
+     */
+    public void endPass() {
+        mIsInPass = false;
+        clear();
+    }
+
+    /**
+     * 返回当前缓存的view数量
+     */
+    public int getCachedCount() {
+        return mMapEntry.size();
+    }
+
+    @Override
+    public boolean resolve(@NonNull View parent, @NonNull View target, @NonNull int[] outOffset) {
+        try {
+            final Entry entryParent = getEntry(parent);
+            final Entry entryTarget = getEntry(target);
+            if (entryParent.root != entryTarget.root) {
+                return getScreenResolver().resolve(parent, target, outOffset);
+            }
+
+            outOffset[0] = ViewOffsets.round(entryTarget.x) - ViewOffsets.round(entryParent.x);
+            outOffset[1] = ViewOffsets.round(entryTarget.y) - ViewOffsets.round(entryParent.y);
+            return true;
+        } finally {
+            if (!mIsInPass) {
+                clear();
+            }
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        clear();
+    }
+
+    private Entry getEntry(View view) {
+        Entry entry = mMapEntry.get(view);
+        if (entry != null) {
+            return entry;
+        }
+
+        entry = obtainEntry();
+        final ViewParent viewParent = view.getParent();
+        if (viewParent instanceof View) {
+            final Entry parentEntry = getEntry((View) viewParent);
+            entry.root = parentEntry.root;
+            entry.translationOnly = parentEntry.translationOnly && isTranslationOnly(view);
+
+            if (parentEntry.translationOnly) {
+                // 父布局到根布局只有平移，可以直接累加父布局的位置
+                ViewOffsets.mapToAncestor(view, (View) viewParent, mPoint);
+                entry.x = parentEntry.x + mPoint[0];
+                entry.y = parentEntry.y + mPoint[1];
+            } else {
+                ViewOffsets.mapToAncestor(view, null, mPoint);
+                entry.x = mPoint[0];
+                entry.y = mPoint[1];
+            }
+        } else {
+            ViewOffsets.mapToAncestor(view, null, mPoint);
+            entry.root = view;
+            entry.translationOnly = isTranslationOnly(view);
+            entry.x = mPoint[0];
+            entry.y = mPoint[1];
+        }
+
+        mMapEntry.put(view, entry);
+        return entry;
+    }
+
+    private Entry obtainEntry() {
+        if (mPoolIndex == mPool.size()) {
+            mPool.add(new Entry());
+        }
+        return mPool.get(mPoolIndex++);
+    }
+
+    private void clear() {
+        if (mPoolIndex > 0) {
+            for (int i = 0; i < mPoolIndex; i++) {
+                mPool.get(i).root = null;
+            }
+            mPoolIndex = 0;
+            mMapEntry.clear();
+        }
+    }
+
+    private ScreenOffsetResolver getScreenResolver() {
+        if (mScreenResolver == null) {
+            mScreenResolver = new ScreenOffsetResolver();
+        }
+        return mScreenResolver;
+    }
+
+    private static boolean isTranslationOnly(View view) {
+        final Matrix matrix = view.getMatrix();
+        if (matrix.isIdentity()) {
+            return true;
+        }
+        return view.getScaleX() == 1f && view.getScaleY() == 1f
+                && view.getRotation() == 0f
+                && view.getRotationX() == 0f
+                && view.getRotationY() == 0f;
+    }
+
+    private static final class Entry {
+        View root;
+        boolean translationOnly;
+        float x;
+        float y;
+    }
+}
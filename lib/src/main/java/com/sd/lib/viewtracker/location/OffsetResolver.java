@@ -0,0 +1,25 @@
+package com.sd.lib.viewtracker.location;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 计算target左上角相对于source父布局左上角的偏移
+ */
+public interface OffsetResolver {
+    /**
+     * 计算偏移
+     *
+     * @param parent    source的父布局
+     * @param target    目标view
+     * @param outOffset 保存计算结果，[0]-x方向偏移，[1]-y方向偏移
+     * @return true-计算成功
+     */
+    boolean resolve(@NonNull View parent, @NonNull View target, @NonNull int[] outOffset);
+
+    /**
+     * 使缓存的信息失效，下一次{@link #resolve(View, View, int[])}重新计算
+     */
+    void invalidate();
+}
@@ -0,0 +1,11 @@
+package com.sd.lib.viewtracker.location;
+
+/**
+ * 会在view上添加监听的偏移计算对象，不再使用的时候需要释放
+ */
+public interface ReleasableOffsetResolver extends OffsetResolver {
+    /**
+     * 移除所有添加的监听，释放之后仍然可以继续使用，下一次计算的时候重新添加监听
+     */
+    void release();
+}
@@ -0,0 +1,26 @@
+package com.sd.lib.viewtracker.location;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 分别计算parent和target在屏幕上的位置，再计算偏移，不做任何缓存
+ */
+public class ScreenOffsetResolver implements OffsetResolver {
+    private final int[] mLocationParent = {0, 0};
+    private final int[] mLocationTarget = {0, 0};
+
+    @Override
+    public boolean resolve(@NonNull View parent, @NonNull View target, @NonNull int[] outOffset) {
+        parent.getLocationOnScreen(mLocationParent);
+        target.getLocationOnScreen(mLocationTarget);
+        outOffset[0] = mLocationTarget[0] - mLocationParent[0];
+        outOffset[1] = mLocationTarget[1] - mLocationParent[1];
+        return true;
+    }
+
+    @Override
+    public void invalidate() {
+    }
+}
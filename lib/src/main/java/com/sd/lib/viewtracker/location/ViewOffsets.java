@@ -0,0 +1,102 @@
+package com.sd.lib.viewtracker.location;
+
+import android.graphics.Matrix;
+import android.view.View;
+import android.view.ViewParent;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * view之间的偏移计算，计算方式和{@link View#getLocationInWindow(int[])}一致，只是在指定的祖先布局停止
+ */
+public final class ViewOffsets {
+    private ViewOffsets() {
+    }
+
+    /**
+     * 把view左上角映射到祖先布局的坐标系中
+     *
+     * @param view     view
+     * @param ancestor 祖先布局，如果为null，则映射到根布局的父坐标系中
+     * @param outPoint 保存结果
+     * @return true-成功，false-ancestor不是view的祖先布局
+     */
+    public static boolean mapToAncestor(@NonNull View view, @Nullable View ancestor, @NonNull float[] outPoint) {
+        outPoint[0] = 0;
+        outPoint[1] = 0;
+
+        View current = view;
+        while (current != ancestor) {
+            final Matrix matrix = current.getMatrix();
+            if (!matrix.isIdentity()) {
+                matrix.mapPoints(outPoint);
+            }
+            outPoint[0] += current.getLeft();
+            outPoint[1] += current.getTop();
+
+            final ViewParent parent = current.getParent();
+            if (!(parent instanceof View)) {
+                return ancestor == null;
+            }
+
+            current = (View) parent;
+            outPoint[0] -= current.getScrollX();
+            outPoint[1] -= current.getScrollY();
+        }
+        return true;
+    }
+
+    /**
+     * 查找两个view最近的公共祖先布局（包括它们自己）
+     *
+     * @return null-没有公共祖先布局
+     */
+    @Nullable
+    public static View findCommonAncestor(@NonNull View first, @NonNull View second) {
+        int firstDepth = getDepth(first);
+        int secondDepth = getDepth(second);
+
+        View a = first;
+        View b = second;
+        while (firstDepth > secondDepth) {
+            a = (View) a.getParent();
+            firstDepth--;
+        }
+        while (secondDepth > firstDepth) {
+            b = (View) b.getParent();
+            secondDepth--;
+        }
+
+        while (a != b) {
+            final ViewParent parentA = a.getParent();
+            final ViewParent parentB = b.getParent();
+            if (!(parentA instanceof View) || !(parentB instanceof View)) {
+                return null;
+            }
+            a = (View) parentA;
+            b = (View) parentB;
+        }
+        return a;
+    }
+
+    /**
+     * 返回view在树中的深度，没有View类型的父布局时为0
+     */
+    public static int getDepth(@NonNull View view) {
+        int depth = 0;
+        ViewParent parent = view.getParent();
+        while (parent instanceof View) {
+            depth++;
+            parent = parent.getParent();
+        }
+        return depth;
+    }
+
+    /**
+     * 和{@link View#getLocationInWindow(int[])}一样的取整方式
+     */
+    public static int round(float value) {
+        return (int) (value + 0.5f);
+    }
+}
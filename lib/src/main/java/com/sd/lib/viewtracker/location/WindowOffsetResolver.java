@@ -0,0 +1,189 @@
+package com.sd.lib.viewtracker.location;
+
+import android.os.IBinder;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * 跨窗口追踪的偏移计算，例如source在{@link android.widget.PopupWindow}或者对话框中，target在Activity的窗口中
+ * <p>
+ * 按照窗口token缓存每个窗口在屏幕上的原点，每次只计算parent和target在各自窗口中的位置，
+ * parent和target在同一个窗口中的时候不需要窗口原点。
+ * 窗口重新布局之后，根布局在屏幕上的位置或者大小（例如insets变化）和缓存时不同，或者窗口被移除时缓存失效；
+ * 如果只是移动了窗口的位置，例如调用{@link android.widget.PopupWindow#update(int, int, int, int)}，
+ * 需要手动调用{@link #invalidate()}
+ */
+public class WindowOffsetResolver implements ReleasableOffsetResolver {
+    private final WeakHashMap<IBinder, WindowOrigin> mOrigins = new WeakHashMap<>();
+    private final ScreenOffsetResolver mScreenResolver = new ScreenOffsetResolver();
+
+    private final float[] mPointParent = {0, 0};
+    private final float[] mPointTarget = {0, 0};
+
+    @Override
+    public boolean resolve(@NonNull View parent, @NonNull View target, @NonNull int[] outOffset) {
+        final IBinder parentToken = parent.getWindowToken();
+        final IBinder targetToken = target.getWindowToken();
+        if (parentToken == null || targetToken == null) {
+            return mScreenResolver.resolve(parent, target, outOffset);
+        }
+
+        ViewOffsets.mapToAncestor(parent, null, mPointParent);
+        ViewOffsets.mapToAncestor(target, null, mPointTarget);
+        int x = ViewOffsets.round(mPointTarget[0]) - ViewOffsets.round(mPointParent[0]);
+        int y = ViewOffsets.round(mPointTarget[1]) - ViewOffsets.round(mPointParent[1]);
+
+        if (parentToken != targetToken) {
+            final WindowOrigin parentOrigin = getOrigin(parentToken, parent);
+            final WindowOrigin targetOrigin = getOrigin(targetToken, target);
+            x += targetOrigin.x - parentOrigin.x;
+            y += targetOrigin.y - parentOrigin.y;
+        }
+
+        outOffset[0] = x;
+        outOffset[1] = y;
+        return true;
+    }
+
+    @Override
+    public void invalidate() {
+        for (WindowOrigin origin : mOrigins.values()) {
+            origin.valid = false;
+        }
+    }
+
+    /**
+     * 返回缓存的窗口数量
+     */
+    public int getWindowCount() {
+        return mOrigins.size();
+    }
+
+    /**
+     * 移除所有添加的监听和缓存
+     */
+    @Override
+    public void release() {
+        for (WindowOrigin origin : mOrigins.values()) {
+            origin.release();
+        }
+        mOrigins.clear();
+    }
+
+    @NonNull
+    private WindowOrigin getOrigin(IBinder token, View view) {
+        final View root = view.getRootView();
+        WindowOrigin origin = mOrigins.get(token);
+        if (origin != null && origin.getRoot() != root) {
+            origin.release();
+            origin = null;
+        }
+
+        if (origin == null) {
+            origin = new WindowOrigin(token, root);
+            mOrigins.put(token, origin);
+        }
+
+        if (!origin.valid) {
+            origin.compute(root);
+        }
+        return origin;
+    }
+
+    private final class WindowOrigin implements ViewTreeObserver.OnGlobalLayoutListener, View.OnAttachStateChangeListener {
+        private final WeakReference<IBinder> mToken;
+        private final WeakReference<View> mRoot;
+        private final int[] mLocation = {0, 0};
+        private final float[] mPoint = {0, 0};
+
+        /** 缓存时根布局在屏幕上的位置和大小 */
+        private int mRootX;
+        private int mRootY;
+        private int mRootWidth;
+        private int mRootHeight;
+
+        int x;
+        int y;
+        boolean valid;
+
+        WindowOrigin(IBinder token, View root) {
+            mToken = new WeakReference<>(token);
+            mRoot = new WeakReference<>(root);
+            root.getViewTreeObserver().addOnGlobalLayoutListener(this);
+            root.addOnAttachStateChangeListener(this);
+        }
+
+        View getRoot() {
+            return mRoot.get();
+        }
+
+        /**
+         * 窗口原点 = 根布局在屏幕上的位置 - 根布局在窗口中的位置
+         */
+        void compute(View root) {
+            root.getLocationOnScreen(mLocation);
+            mRootX = mLocation[0];
+            mRootY = mLocation[1];
+            mRootWidth = root.getWidth();
+            mRootHeight = root.getHeight();
+
+            ViewOffsets.mapToAncestor(root, null, mPoint);
+            x = mLocation[0] - ViewOffsets.round(mPoint[0]);
+            y = mLocation[1] - ViewOffsets.round(mPoint[1]);
+            valid = true;
+        }
+
+        void release() {
+            final View root = mRoot.get();
+            if (root != null) {
+                final ViewTreeObserver observer = root.getViewTreeObserver();
+                if (observer.isAlive()) {
+                    observer.removeOnGlobalLayoutListener(this);
+                }
+                root.removeOnAttachStateChangeListener(this);
+            }
+            valid = false;
+        }
+
+        @Override
+        public void onGlobalLayout() {
+            if (!valid) {
+                return;
+            }
+
+            // 窗口中任意view的布局都会回调，只有根布局的位置或者大小变化了才失效
+            final View root = mRoot.get();
+            if (root == null) {
+                valid = false;
+                return;
+            }
+
+            root.getLocationOnScreen(mLocation);
+            if (mLocation[0] != mRootX
+                    || mLocation[1] != mRootY
+                    || root.getWidth() != mRootWidth
+                    || root.getHeight() != mRootHeight) {
+                valid = false;
+            }
+        }
+
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            valid = false;
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            release();
+            final IBinder token = mToken.get();
+            if (token != null && mOrigins.get(token) == this) {
+                mOrigins.remove(token);
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.sd.lib.viewtracker.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 追踪统计的默认实现，计数和耗时都保存在预先分配的数组中
+ * <p>
+ * 默认会同时累加到全局统计{@link #global()}，全局统计可以用来在线上导出
+ */
+public class FTrackerMetrics implements TrackerMetrics {
+    private static FTrackerMetrics sGlobal;
+
+    private final FTrackerMetrics mParent;
+
+    private final long[] mRejectCounts = new long[REJECT_COUNT];
+    private long mUpdatedCount;
+    private long mSuppressedCount;
+
+    private final NanoHistogram mComputeTime = new NanoHistogram();
+    private final NanoHistogram mCallbackTime = new NanoHistogram();
+
+    /**
+     * 创建统计对象，同时累加到全局统计
+     */
+    public FTrackerMetrics() {
+        this(global());
+    }
+
+    /**
+     * 创建统计对象
+     *
+     * @param parent 同时累加到的统计对象，null-不累加
+     */
+    public FTrackerMetrics(@Nullable FTrackerMetrics parent) {
+        mParent = parent;
+    }
+
+    /**
+     * 返回全局统计对象
+     */
+    @NonNull
+    public static synchronized FTrackerMetrics global() {
+        if (sGlobal == null) {
+            sGlobal = new FTrackerMetrics(null);
+        }
+        return sGlobal;
+    }
+
+    @Override
+    public void onRejected(int reason) {
+        mRejectCounts[reason]++;
+        if (mParent != null) {
+            mParent.onRejected(reason);
+        }
+    }
+
+    @Override
+    public void onUpdated() {
+        mUpdatedCount++;
+        if (mParent != null) {
+            mParent.onUpdated();
+        }
+    }
+
+    @Override
+    public void onSuppressed() {
+        mSuppressedCount++;
+        if (mParent != null) {
+            mParent.onSuppressed();
+        }
+    }
+
+    @Override
+    public void onComputeTime(long nanos) {
+        mComputeTime.record(nanos);
+        if (mParent != null) {
+            mParent.onComputeTime(nanos);
+        }
+    }
+
+    @Override
+    public void onCallbackTime(long nanos) {
+        mCallbackTime.record(nanos);
+        if (mParent != null) {
+            mParent.onCallbackTime(nanos);
+        }
+    }
+
+    /**
+     * 返回某个原因的拒绝次数
+     *
+     * @param reason 拒绝原因，例如{@link #REJECT_NO_CALLBACK}
+     */
+    public long getRejectCount(int reason) {
+        return mRejectCounts[reason];
+    }
+
+    /**
+     * 返回所有原因的拒绝次数
+     */
+    public long getRejectCount() {
+        long count = 0;
+        for (long item : mRejectCounts) {
+            count += item;
+        }
+        return count;
+    }
+
+    /**
+     * 返回更新成功并回调的次数
+     */
+    public long getUpdatedCount() {
+        return mUpdatedCount;
+    }
+
+    /**
+     * 返回位置未变化跳过回调的次数
+     */
+    public long getSuppressedCount() {
+        return mSuppressedCount;
+    }
+
+    /**
+     * 返回计算位置耗时
+     */
+    @NonNull
+    public NanoHistogram getComputeTime() {
+        return mComputeTime;
+    }
+
+    /**
+     * 返回应用位置和回调耗时
+     */
+    @NonNull
+    public NanoHistogram getCallbackTime() {
+        return mCallbackTime;
+    }
+
+    /**
+     * 重置统计数据，不会重置全局统计
+     */
+    public void reset() {
+        for (int i = 0; i < REJECT_COUNT; i++) {
+            mRejectCounts[i] = 0;
+        }
+        mUpdatedCount = 0;
+        mSuppressedCount = 0;
+        mComputeTime.reset();
+        mCallbackTime.reset();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("updated:").append(mUpdatedCount)
+                .append(" suppressed:").append(mSuppressedCount)
+                .append(" rejected:[");
+        for (int i = 0; i < REJECT_COUNT; i++) {
+            if (i > 0) {
+                builder.append(",");
+            }
+            builder.append(mRejectCounts[i]);
+        }
+        builder.append("]")
+                .append(" compute:{").append(mComputeTime).append("}")
+                .append(" callback:{").append(mCallbackTime).append("}");
+        return builder.toString();
+    }
+}
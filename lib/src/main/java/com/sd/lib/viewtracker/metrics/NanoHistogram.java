@@ -0,0 +1,96 @@
+package com.sd.lib.viewtracker.metrics;
+
+/**
+ * 纳秒耗时直方图，按2的幂分桶，记录的时候不分配内存
+ */
+public class NanoHistogram {
+    /** 桶的数量，第i个桶记录[2^i, 2^(i+1))纳秒，第0个桶还包括0 */
+    public static final int BUCKET_COUNT = 64;
+
+    private final long[] mBuckets = new long[BUCKET_COUNT];
+    private long mCount;
+    private long mTotal;
+    private long mMax;
+
+    /**
+     * 记录一次耗时
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        mBuckets[bucketOf(nanos)]++;
+        mCount++;
+        mTotal += nanos;
+        if (nanos > mMax) {
+            mMax = nanos;
+        }
+    }
+
+    public long getCount() {
+        return mCount;
+    }
+
+    public long getTotal() {
+        return mTotal;
+    }
+
+    public long getMax() {
+        return mMax;
+    }
+
+    public long getAverage() {
+        return mCount == 0 ? 0 : mTotal / mCount;
+    }
+
+    /**
+     * 返回某个桶的数量
+     */
+    public long getBucket(int index) {
+        return mBuckets[index];
+    }
+
+    /**
+     * 返回百分位的近似值（所在桶的上界）
+     *
+     * @param percent 百分位，[0, 100]
+     */
+    public long getPercentile(int percent) {
+        if (mCount == 0) {
+            return 0;
+        }
+
+        final long threshold = (mCount * percent + 99) / 100;
+        long sum = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            sum += mBuckets[i];
+            if (sum >= threshold && sum > 0) {
+                return i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return mMax;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            mBuckets[i] = 0;
+        }
+        mCount = 0;
+        mTotal = 0;
+        mMax = 0;
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "count:" + mCount
+                + " avg:" + getAverage()
+                + " p50:" + getPercentile(50)
+                + " p90:" + getPercentile(90)
+                + " p99:" + getPercentile(99)
+                + " max:" + mMax;
+    }
+}
@@ -0,0 +1,56 @@
+package com.sd.lib.viewtracker.metrics;
+
+/**
+ * 追踪的统计接口，所有方法都在更新的线程（主线程）回调，实现类不应该分配内存或者做耗时操作
+ */
+public interface TrackerMetrics {
+    /** 没有设置回调对象和位置应用对象 */
+    int REJECT_NO_CALLBACK = 0;
+    /** 源view或者目标view为null */
+    int REJECT_NO_VIEW = 1;
+    /** {@link com.sd.lib.viewtracker.ViewTracker.Callback#canUpdate}返回false */
+    int REJECT_CAN_UPDATE = 2;
+    /** 源view的父布局不是View */
+    int REJECT_NO_PARENT = 3;
+    /** 源view或者目标view未attach */
+    int REJECT_DETACHED = 4;
+    /** 源view的宽或者高为0 */
+    int REJECT_EMPTY_SOURCE = 5;
+    /** 偏移计算失败 */
+    int REJECT_RESOLVE_FAILED = 6;
+    /** 源view不可见，或者目标view不可见或者完全在可见区域之外 */
+    int REJECT_CULLED = 7;
+    /** 拒绝原因的数量 */
+    int REJECT_COUNT = 8;
+
+    /**
+     * 更新被拒绝
+     *
+     * @param reason 拒绝原因，例如{@link #REJECT_NO_CALLBACK}
+     */
+    void onRejected(int reason);
+
+    /**
+     * 更新成功，并且回调了结果
+     */
+    void onUpdated();
+
+    /**
+     * 更新成功，但是位置未变化，跳过了回调
+     */
+    void onSuppressed();
+
+    /**
+     * 计算位置耗时
+     *
+     * @param nanos 纳秒
+     */
+    void onComputeTime(long nanos);
+
+    /**
+     * 应用位置和回调耗时
+     *
+     * @param nanos 纳秒
+     */
+    void onCallbackTime(long nanos);
+}
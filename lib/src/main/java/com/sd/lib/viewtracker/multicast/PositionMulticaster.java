@@ -0,0 +1,224 @@
+package com.sd.lib.viewtracker.multicast;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 把位置发送给多个订阅者，每个订阅者可以指定发送策略：
+ * <ul>
+ * <li>{@link #POLICY_SYNC}：在更新中同步发送</li>
+ * <li>{@link #POLICY_CONFLATED}：只保留最新的位置，在主线程下一次空闲的时候发送</li>
+ * <li>{@link #POLICY_SAMPLED}：只保留最新的位置，按照指定的间隔最多发送一次</li>
+ * </ul>
+ * 除了{@link #POLICY_SYNC}以外，订阅者都不在更新中执行，执行慢的订阅者不会延长这一帧。只能在主线程使用
+ */
+public final class PositionMulticaster {
+    /** 在更新中同步发送 */
+    public static final int POLICY_SYNC = 0;
+    /** 只保留最新的位置，在主线程下一次空闲的时候发送 */
+    public static final int POLICY_CONFLATED = 1;
+    /** 只保留最新的位置，按照指定的间隔最多发送一次 */
+    public static final int POLICY_SAMPLED = 2;
+
+    private static final Subscription[] EMPTY = new Subscription[0];
+
+    /** 发送的时候遍历的是快照，发送过程中可以订阅和取消订阅 */
+    private Subscription[] mSubscriptions = EMPTY;
+
+    private boolean mIdlePosted;
+    private boolean mSamplePosted;
+    private Handler mHandler;
+
+    /**
+     * 订阅，策略为{@link #POLICY_SYNC}或者{@link #POLICY_CONFLATED}
+     */
+    @NonNull
+    public Subscription subscribe(@NonNull PositionSubscriber subscriber, int policy) {
+        if (policy != POLICY_SYNC && policy != POLICY_CONFLATED) {
+            throw new IllegalArgumentException("Use subscribeSampled() for POLICY_SAMPLED, illegal policy:" + policy);
+        }
+        return add(new Subscription(this, subscriber, policy, 0));
+    }
+
+    /**
+     * 按照指定的间隔采样订阅，策略为{@link #POLICY_SAMPLED}
+     *
+     * @param intervalMillis 两次发送之间至少间隔的时长（毫秒）
+     */
+    @NonNull
+    public Subscription subscribeSampled(@NonNull PositionSubscriber subscriber, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis must be > 0");
+        }
+        return add(new Subscription(this, subscriber, POLICY_SAMPLED, intervalMillis));
+    }
+
+    /**
+     * 是否有订阅者
+     */
+    public boolean hasSubscribers() {
+        return mSubscriptions.length > 0;
+    }
+
+    /**
+     * 返回订阅者数量
+     */
+    public int getSubscriberCount() {
+        return mSubscriptions.length;
+    }
+
+    /**
+     * 取消所有订阅
+     */
+    public void clear() {
+        final Subscription[] subscriptions = mSubscriptions;
+        for (Subscription item : subscriptions) {
+            item.cancel();
+        }
+    }
+
+    /**
+     * 发送位置
+     */
+    public void dispatch(int x, int y, @NonNull View source, @NonNull View target) {
+        final Subscription[] subscriptions = mSubscriptions;
+        if (subscriptions.length == 0) {
+            return;
+        }
+
+        final long now = SystemClock.uptimeMillis();
+        long sampleDelay = -1;
+        for (Subscription item : subscriptions) {
+            if (item.isCanceled()) continue;
+
+            switch (item.policy) {
+                case POLICY_SYNC:
+                    item.deliver(x, y, source, target, now);
+                    break;
+                case POLICY_CONFLATED:
+                    item.offer(x, y, source, target);
+                    postIdle();
+                    break;
+                default:
+                    item.offer(x, y, source, target);
+                    final long delay = Math.max(0, item.lastDeliverTime + item.intervalMillis - now);
+                    if (sampleDelay < 0 || delay < sampleDelay) {
+                        sampleDelay = delay;
+                    }
+                    break;
+            }
+        }
+
+        if (sampleDelay >= 0) {
+            postSample(sampleDelay);
+        }
+    }
+
+    private Subscription add(Subscription subscription) {
+        final Subscription[] old = mSubscriptions;
+        final Subscription[] subscriptions = new Subscription[old.length + 1];
+        System.arraycopy(old, 0, subscriptions, 0, old.length);
+        subscriptions[old.length] = subscription;
+        mSubscriptions = subscriptions;
+        return subscription;
+    }
+
+    void remove(Subscription subscription) {
+        final Subscription[] old = mSubscriptions;
+        int index = -1;
+        for (int i = 0; i < old.length; i++) {
+            if (old[i] == subscription) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return;
+        }
+
+        if (old.length == 1) {
+            mSubscriptions = EMPTY;
+            cancelPosted();
+            return;
+        }
+
+        final Subscription[] subscriptions = new Subscription[old.length - 1];
+        System.arraycopy(old, 0, subscriptions, 0, index);
+        System.arraycopy(old, index + 1, subscriptions, index, old.length - index - 1);
+        mSubscriptions = subscriptions;
+    }
+
+    private void postIdle() {
+        if (!mIdlePosted) {
+            mIdlePosted = true;
+            Looper.myQueue().addIdleHandler(mIdleHandler);
+        }
+    }
+
+    private void postSample(long delay) {
+        if (!mSamplePosted) {
+            mSamplePosted = true;
+            getHandler().postDelayed(mSampleRunnable, delay);
+        }
+    }
+
+    private void cancelPosted() {
+        if (mIdlePosted) {
+            mIdlePosted = false;
+            Looper.myQueue().removeIdleHandler(mIdleHandler);
+        }
+        if (mSamplePosted) {
+            mSamplePosted = false;
+            getHandler().removeCallbacks(mSampleRunnable);
+        }
+    }
+
+    private Handler getHandler() {
+        if (mHandler == null) {
+            mHandler = new Handler(Looper.getMainLooper());
+        }
+        return mHandler;
+    }
+
+    private final MessageQueue.IdleHandler mIdleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            mIdlePosted = false;
+            final long now = SystemClock.uptimeMillis();
+            for (Subscription item : mSubscriptions) {
+                if (item.policy == POLICY_CONFLATED) {
+                    item.deliverPending(now);
+                }
+            }
+            return false;
+        }
+    };
+
+    private final Runnable mSampleRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mSamplePosted = false;
+            final long now = SystemClock.uptimeMillis();
+            long nextDelay = -1;
+            for (Subscription item : mSubscriptions) {
+                if (item.policy != POLICY_SAMPLED || !item.pending) continue;
+
+                final long delay = item.lastDeliverTime + item.intervalMillis - now;
+                if (delay <= 0) {
+                    item.deliverPending(now);
+                } else if (nextDelay < 0 || delay < nextDelay) {
+                    nextDelay = delay;
+                }
+            }
+
+            if (nextDelay >= 0) {
+                postSample(nextDelay);
+            }
+        }
+    };
+}
@@ -0,0 +1,20 @@
+package com.sd.lib.viewtracker.multicast;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 位置订阅者
+ */
+public interface PositionSubscriber {
+    /**
+     * 收到位置
+     *
+     * @param x      source相对于父布局的x值
+     * @param y      source相对于父布局的y值
+     * @param source 源view
+     * @param target 目标view
+     */
+    void onPosition(int x, int y, @NonNull View source, @NonNull View target);
+}
@@ -0,0 +1,114 @@
+package com.sd.lib.viewtracker.multicast;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 订阅关系，通过{@link #cancel()}取消订阅
+ */
+public final class Subscription {
+    private final PositionMulticaster mMulticaster;
+    final PositionSubscriber subscriber;
+    final int policy;
+    final long intervalMillis;
+
+    /** 是否有等待发送的位置 */
+    boolean pending;
+    int x;
+    int y;
+    View source;
+    View target;
+    long lastDeliverTime;
+
+    private long mDeliveredCount;
+    private long mConflatedCount;
+    private boolean mIsCanceled;
+
+    Subscription(PositionMulticaster multicaster, PositionSubscriber subscriber, int policy, long intervalMillis) {
+        mMulticaster = multicaster;
+        this.subscriber = subscriber;
+        this.policy = policy;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * 取消订阅，还没有发送的位置会被丢弃
+     */
+    public void cancel() {
+        if (!mIsCanceled) {
+            mIsCanceled = true;
+            clearPending();
+            mMulticaster.remove(this);
+        }
+    }
+
+    /**
+     * 是否已经取消订阅
+     */
+    public boolean isCanceled() {
+        return mIsCanceled;
+    }
+
+    /**
+     * 返回发送策略
+     */
+    public int getPolicy() {
+        return policy;
+    }
+
+    /**
+     * 返回发送给订阅者的次数
+     */
+    public long getDeliveredCount() {
+        return mDeliveredCount;
+    }
+
+    /**
+     * 返回因为被更新的位置覆盖而没有发送的次数
+     */
+    public long getConflatedCount() {
+        return mConflatedCount;
+    }
+
+    @NonNull
+    public PositionSubscriber getSubscriber() {
+        return subscriber;
+    }
+
+    void offer(int x, int y, View source, View target) {
+        if (pending) {
+            mConflatedCount++;
+        }
+        this.pending = true;
+        this.x = x;
+        this.y = y;
+        this.source = source;
+        this.target = target;
+    }
+
+    void deliver(int x, int y, View source, View target, long now) {
+        lastDeliverTime = now;
+        mDeliveredCount++;
+        subscriber.onPosition(x, y, source, target);
+    }
+
+    /**
+     * 发送等待中的位置
+     */
+    void deliverPending(long now) {
+        if (!pending || mIsCanceled) {
+            return;
+        }
+        final View source = this.source;
+        final View target = this.target;
+        clearPending();
+        deliver(x, y, source, target, now);
+    }
+
+    private void clearPending() {
+        pending = false;
+        source = null;
+        target = null;
+    }
+}
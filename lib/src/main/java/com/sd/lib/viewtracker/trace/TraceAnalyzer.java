@@ -0,0 +1,266 @@
+package com.sd.lib.viewtracker.trace;
+
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 离线分析{@link TraceRecorder}导出的记录，不依赖Android平台，可以在电脑上运行：
+ * <pre>
+ * java com.sd.lib.viewtracker.trace.TraceAnalyzer trace.bin
+ * </pre>
+ * 分析的内容：
+ * <ul>
+ * <li>每帧更新次数：同一个追踪对象在同一帧中的记录数量</li>
+ * <li>一帧延迟：某一帧最后一次回调之后，同一帧中又观察到目标view的位置发生了变化，这一帧绘制的是旧的位置</li>
+ * <li>位置抖动：相邻两次回调中源view相对于目标view的位置发生了变化，以及移动方向反复变化的次数</li>
+ * <li>多余的触发：位置未变化被跳过的更新，以及同一帧中回调了相同位置的更新</li>
+ * </ul>
+ */
+public final class TraceAnalyzer {
+    private TraceAnalyzer() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("usage: TraceAnalyzer <trace file>");
+            return;
+        }
+
+        try (InputStream input = new FileInputStream(args[0])) {
+            System.out.println(analyze(input));
+        }
+    }
+
+    /**
+     * 分析记录
+     */
+    public static Report analyze(InputStream inputStream) throws IOException {
+        final DataInputStream input = new DataInputStream(inputStream);
+        if (input.readInt() != TraceFormat.MAGIC) {
+            throw new IOException("Not a trace file");
+        }
+        final int version = input.readShort();
+        if (version != TraceFormat.VERSION) {
+            throw new IOException("Unsupported version:" + version);
+        }
+        final int recordSize = input.readShort();
+        if (recordSize < TraceFormat.RECORD_SIZE) {
+            throw new IOException("Illegal record size:" + recordSize);
+        }
+
+        final int count = input.readInt();
+        final Report report = new Report();
+        report.droppedCount = input.readLong();
+
+        final byte[] data = new byte[recordSize];
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        final Map<Integer, TrackerState> states = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            input.readFully(data);
+            final int trackerId = buffer.getInt(TraceFormat.OFFSET_TRACKER_ID);
+            TrackerState state = states.get(trackerId);
+            if (state == null) {
+                state = new TrackerState();
+                states.put(trackerId, state);
+            }
+            state.accept(buffer, report);
+        }
+
+        for (TrackerState state : states.values()) {
+            state.endFrame(report);
+        }
+        report.recordCount = count;
+        report.trackerCount = states.size();
+        return report;
+    }
+
+    private static final class TrackerState {
+        boolean hasFrame;
+        long frameTime;
+        int frameRecords;
+        int frameEmitted;
+        int frameEmittedX;
+        int frameEmittedY;
+        int frameEmittedTargetX;
+        int frameEmittedTargetY;
+        boolean hasFrameTarget;
+        int frameTargetX;
+        int frameTargetY;
+
+        boolean hasEmitted;
+        int lastX;
+        int lastY;
+        int lastRelX;
+        int lastRelY;
+        int lastDx;
+        int lastDy;
+
+        void accept(ByteBuffer buffer, Report report) {
+            final long time = buffer.getLong(TraceFormat.OFFSET_FRAME_TIME);
+            if (!hasFrame || time != frameTime) {
+                endFrame(report);
+                hasFrame = true;
+                frameTime = time;
+            }
+            frameRecords++;
+
+            final int trigger = buffer.get(TraceFormat.OFFSET_TRIGGER);
+            if (trigger >= 0 && trigger < report.triggerCounts.length) {
+                report.triggerCounts[trigger]++;
+            }
+
+            final int result = buffer.getShort(TraceFormat.OFFSET_RESULT);
+            if (result >= TraceFormat.RESULT_REJECTED) {
+                // 被拒绝的记录中位置是旧的值
+                report.rejectedCount++;
+                return;
+            }
+
+            final int x = buffer.getInt(TraceFormat.OFFSET_X);
+            final int y = buffer.getInt(TraceFormat.OFFSET_Y);
+            final int targetX = buffer.getInt(TraceFormat.OFFSET_TARGET_X);
+            final int targetY = buffer.getInt(TraceFormat.OFFSET_TARGET_Y);
+            hasFrameTarget = true;
+            frameTargetX = targetX;
+            frameTargetY = targetY;
+
+            if (result == TraceFormat.RESULT_SUPPRESSED) {
+                report.suppressedCount++;
+                report.redundantTriggers++;
+                return;
+            }
+
+            report.emittedCount++;
+            if (frameEmitted > 0 && frameEmittedX == x && frameEmittedY == y) {
+                report.redundantTriggers++;
+            }
+            frameEmitted++;
+            frameEmittedX = x;
+            frameEmittedY = y;
+            frameEmittedTargetX = targetX;
+            frameEmittedTargetY = targetY;
+
+            final int relX = x - targetX;
+            final int relY = y - targetY;
+            if (hasEmitted) {
+                if (relX != lastRelX || relY != lastRelY) {
+                    final int delta = Math.max(Math.abs(relX - lastRelX), Math.abs(relY - lastRelY));
+                    report.jitterEvents++;
+                    report.jitterTotal += delta;
+                    report.maxJitter = Math.max(report.maxJitter, delta);
+                }
+
+                final int dx = x - lastX;
+                final int dy = y - lastY;
+                if (isReversal(lastDx, dx) || isReversal(lastDy, dy)) {
+                    report.reversals++;
+                }
+                if (dx != 0) lastDx = dx;
+                if (dy != 0) lastDy = dy;
+            }
+            hasEmitted = true;
+            lastX = x;
+            lastY = y;
+            lastRelX = relX;
+            lastRelY = relY;
+        }
+
+        void endFrame(Report report) {
+            if (!hasFrame) {
+                return;
+            }
+
+            report.frameCount++;
+            report.maxUpdatesPerFrame = Math.max(report.maxUpdatesPerFrame, frameRecords);
+            if (frameEmitted > 1) {
+                report.multiEmitFrames++;
+            }
+            if (frameEmitted > 0 && hasFrameTarget
+                    && (frameTargetX != frameEmittedTargetX || frameTargetY != frameEmittedTargetY)) {
+                report.lagEvents++;
+            }
+
+            hasFrame = false;
+            frameRecords = 0;
+            frameEmitted = 0;
+            hasFrameTarget = false;
+        }
+
+        private static boolean isReversal(int last, int delta) {
+            return last != 0 && delta != 0 && (last > 0) != (delta > 0);
+        }
+    }
+
+    /**
+     * 分析结果
+     */
+    public static final class Report {
+        /** 记录数量 */
+        public int recordCount;
+        /** 导出之前被覆盖的记录数量 */
+        public long droppedCount;
+        /** 追踪对象数量 */
+        public int trackerCount;
+        /** 帧数量，每个追踪对象分别计算 */
+        public int frameCount;
+
+        public int emittedCount;
+        public int suppressedCount;
+        public int rejectedCount;
+        /** 按照触发来源统计的数量，下标为{@link TraceFormat#TRIGGER_MANUAL}等 */
+        public final int[] triggerCounts = new int[4];
+
+        /** 每帧最多的更新次数 */
+        public int maxUpdatesPerFrame;
+        /** 同一帧回调多次的帧数量 */
+        public int multiEmitFrames;
+        /** 一帧延迟的次数 */
+        public int lagEvents;
+        /** 多余的触发次数 */
+        public int redundantTriggers;
+
+        /** 源view相对于目标view的位置发生变化的次数 */
+        public int jitterEvents;
+        /** 相对位置变化的最大值（像素） */
+        public int maxJitter;
+        /** 相对位置变化的总和（像素） */
+        public long jitterTotal;
+        /** 移动方向反复变化的次数 */
+        public int reversals;
+
+        /**
+         * 平均每帧的更新次数
+         */
+        public float getAverageUpdatesPerFrame() {
+            return frameCount == 0 ? 0 : (float) recordCount / frameCount;
+        }
+
+        /**
+         * 平均每次的相对位置变化（像素）
+         */
+        public float getAverageJitter() {
+            return jitterEvents == 0 ? 0 : (float) jitterTotal / jitterEvents;
+        }
+
+        @Override
+        public String toString() {
+            return "records:" + recordCount + " dropped:" + droppedCount
+                    + " trackers:" + trackerCount + " frames:" + frameCount + "\n"
+                    + "emitted:" + emittedCount + " suppressed:" + suppressedCount + " rejected:" + rejectedCount + "\n"
+                    + "trigger manual:" + triggerCounts[TraceFormat.TRIGGER_MANUAL]
+                    + " source:" + triggerCounts[TraceFormat.TRIGGER_SOURCE]
+                    + " target:" + triggerCounts[TraceFormat.TRIGGER_TARGET]
+                    + " prediction:" + triggerCounts[TraceFormat.TRIGGER_PREDICTION] + "\n"
+                    + "updates/frame avg:" + getAverageUpdatesPerFrame() + " max:" + maxUpdatesPerFrame
+                    + " multiEmitFrames:" + multiEmitFrames + "\n"
+                    + "lagEvents:" + lagEvents + " redundantTriggers:" + redundantTriggers + "\n"
+                    + "jitter events:" + jitterEvents + " avg:" + getAverageJitter() + " max:" + maxJitter
+                    + " reversals:" + reversals;
+        }
+    }
+}
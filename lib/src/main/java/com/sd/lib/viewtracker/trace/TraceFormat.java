@@ -0,0 +1,63 @@
+package com.sd.lib.viewtracker.trace;
+
+/**
+ * 追踪记录的二进制格式，不依赖Android平台
+ * <p>
+ * 文件头：magic(int)，version(short)，记录大小(short)，记录数量(int)，被覆盖的记录数量(long)；
+ * 之后是按时间顺序排列的定长记录，所有数值都是大端序
+ */
+public final class TraceFormat {
+    public static final int MAGIC = 0x56545452;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 4 + 2 + 2 + 4 + 8;
+
+    /** 记录的大小 */
+    public static final int RECORD_SIZE = 40;
+
+    /** 记录的时间（纳秒），long */
+    public static final int OFFSET_TIME = 0;
+    /** 记录所在帧的时间（毫秒），long */
+    public static final int OFFSET_FRAME_TIME = 8;
+    /** 追踪对象的标识，int */
+    public static final int OFFSET_TRACKER_ID = 16;
+    /** 触发来源，byte */
+    public static final int OFFSET_TRIGGER = 20;
+    /** 更新类型，byte */
+    public static final int OFFSET_KIND = 21;
+    /** 更新结果，short */
+    public static final int OFFSET_RESULT = 22;
+    /** 计算出来的x，int */
+    public static final int OFFSET_X = 24;
+    /** 计算出来的y，int */
+    public static final int OFFSET_Y = 28;
+    /** 目标view相对于源view父布局的x，int */
+    public static final int OFFSET_TARGET_X = 32;
+    /** 目标view相对于源view父布局的y，int */
+    public static final int OFFSET_TARGET_Y = 36;
+
+    /** 直接调用更新 */
+    public static final int TRIGGER_MANUAL = 0;
+    /** 源view的更新对象触发 */
+    public static final int TRIGGER_SOURCE = 1;
+    /** 目标view的更新对象触发 */
+    public static final int TRIGGER_TARGET = 2;
+    /** 位置预测的校正触发 */
+    public static final int TRIGGER_PREDICTION = 3;
+
+    /** 普通更新 */
+    public static final int KIND_UPDATE = 0;
+    /** 只有滚动变化的更新 */
+    public static final int KIND_SCROLL = 1;
+    /** 强制更新 */
+    public static final int KIND_FORCE = 2;
+
+    /** 回调了位置 */
+    public static final int RESULT_EMITTED = 0;
+    /** 位置未变化跳过了回调 */
+    public static final int RESULT_SUPPRESSED = 1;
+    /** 更新被拒绝，加上拒绝原因，见{@link com.sd.lib.viewtracker.metrics.TrackerMetrics#REJECT_NO_CALLBACK} */
+    public static final int RESULT_REJECTED = 2;
+
+    private TraceFormat() {
+    }
+}
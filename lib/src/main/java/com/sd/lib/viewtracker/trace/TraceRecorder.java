@@ -0,0 +1,132 @@
+package com.sd.lib.viewtracker.trace;
+
+import android.view.animation.AnimationUtils;
+
+import androidx.annotation.NonNull;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * 追踪记录器，把每次更新按照{@link TraceFormat}写入预先分配的环形缓冲区，写满之后覆盖最旧的记录
+ * <p>
+ * 记录的时候不分配对象，只能在主线程使用，可以通过{@link #dump(OutputStream)}导出之后用{@link TraceAnalyzer}分析
+ */
+public final class TraceRecorder {
+    private final byte[] mData;
+    private final ByteBuffer mBuffer;
+    private final int mCapacity;
+
+    /** 下一条记录写入的位置 */
+    private int mHead;
+    private int mCount;
+    private long mDroppedCount;
+    private boolean mEnabled = true;
+
+    /**
+     * @param capacity 最多保存的记录数量
+     */
+    public TraceRecorder(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        mCapacity = capacity;
+        mData = new byte[capacity * TraceFormat.RECORD_SIZE];
+        mBuffer = ByteBuffer.wrap(mData);
+    }
+
+    /**
+     * 设置是否记录，默认true
+     */
+    public void setEnabled(boolean enabled) {
+        mEnabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * 写入一条记录
+     *
+     * @param trackerId 追踪对象的标识
+     * @param trigger   触发来源，例如{@link TraceFormat#TRIGGER_SOURCE}
+     * @param kind      更新类型，例如{@link TraceFormat#KIND_UPDATE}
+     * @param result    更新结果，例如{@link TraceFormat#RESULT_EMITTED}
+     * @param x         计算出来的x
+     * @param y         计算出来的y
+     * @param targetX   目标view相对于源view父布局的x
+     * @param targetY   目标view相对于源view父布局的y
+     */
+    public void record(int trackerId, int trigger, int kind, int result, int x, int y, int targetX, int targetY) {
+        if (!mEnabled) {
+            return;
+        }
+
+        final ByteBuffer buffer = mBuffer;
+        final int offset = mHead * TraceFormat.RECORD_SIZE;
+        buffer.putLong(offset + TraceFormat.OFFSET_TIME, System.nanoTime());
+        buffer.putLong(offset + TraceFormat.OFFSET_FRAME_TIME, AnimationUtils.currentAnimationTimeMillis());
+        buffer.putInt(offset + TraceFormat.OFFSET_TRACKER_ID, trackerId);
+        buffer.put(offset + TraceFormat.OFFSET_TRIGGER, (byte) trigger);
+        buffer.put(offset + TraceFormat.OFFSET_KIND, (byte) kind);
+        buffer.putShort(offset + TraceFormat.OFFSET_RESULT, (short) result);
+        buffer.putInt(offset + TraceFormat.OFFSET_X, x);
+        buffer.putInt(offset + TraceFormat.OFFSET_Y, y);
+        buffer.putInt(offset + TraceFormat.OFFSET_TARGET_X, targetX);
+        buffer.putInt(offset + TraceFormat.OFFSET_TARGET_Y, targetY);
+
+        mHead = (mHead + 1) % mCapacity;
+        if (mCount < mCapacity) {
+            mCount++;
+        } else {
+            mDroppedCount++;
+        }
+    }
+
+    /**
+     * 返回当前保存的记录数量
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * 返回被覆盖的记录数量
+     */
+    public long getDroppedCount() {
+        return mDroppedCount;
+    }
+
+    /**
+     * 清空记录
+     */
+    public void clear() {
+        mHead = 0;
+        mCount = 0;
+        mDroppedCount = 0;
+    }
+
+    /**
+     * 按照时间顺序导出所有记录，不会关闭输出流
+     */
+    public void dump(@NonNull OutputStream outputStream) throws IOException {
+        final DataOutputStream output = new DataOutputStream(outputStream);
+        output.writeInt(TraceFormat.MAGIC);
+        output.writeShort(TraceFormat.VERSION);
+        output.writeShort(TraceFormat.RECORD_SIZE);
+        output.writeInt(mCount);
+        output.writeLong(mDroppedCount);
+
+        final int recordSize = TraceFormat.RECORD_SIZE;
+        if (mCount < mCapacity) {
+            output.write(mData, 0, mCount * recordSize);
+        } else {
+            output.write(mData, mHead * recordSize, (mCapacity - mHead) * recordSize);
+            output.write(mData, 0, mHead * recordSize);
+        }
+        output.flush();
+    }
+}
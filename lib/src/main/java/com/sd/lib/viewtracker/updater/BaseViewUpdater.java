@@ -8,7 +8,13 @@ import androidx.annotation.Nullable;
 import java.lang.ref.WeakReference;
 
 public abstract class BaseViewUpdater implements ViewUpdater {
+    /** 调用{@link #setPaused(boolean)}暂停 */
+    protected static final int PAUSE_FLAG_USER = 1;
+    /** 窗口不可见暂停 */
+    protected static final int PAUSE_FLAG_WINDOW = 1 << 1;
+
     private boolean mIsStarted;
+    private int mPauseFlags;
     private Updatable mUpdatable;
     private WeakReference<View> mView;
 
@@ -19,13 +25,27 @@ public abstract class BaseViewUpdater implements ViewUpdater {
 
     @Override
     public final void notifyUpdatable() {
-        if (isStarted()) {
+        if (isStarted() && !isPaused()) {
             if (mUpdatable != null) {
                 mUpdatable.update();
             }
         }
     }
 
+    /**
+     * 通知更新对象只有滚动变化，如果更新对象不是{@link ScrollUpdatable}，则执行普通的更新
+     */
+    protected final void notifyUpdatableScroll() {
+        if (isStarted() && !isPaused()) {
+            final Updatable updatable = mUpdatable;
+            if (updatable instanceof ScrollUpdatable) {
+                ((ScrollUpdatable) updatable).updateScroll();
+            } else if (updatable != null) {
+                updatable.update();
+            }
+        }
+    }
+
     @Nullable
     @Override
     public final View getView() {
@@ -37,7 +57,8 @@ public abstract class BaseViewUpdater implements ViewUpdater {
         final View old = getView();
         if (old != view) {
             stop();
-            mView = view == null ? null : new WeakReference<>(view);
+            UpdaterSweeper.releaseViewReference(mView);
+            mView = view == null ? null : UpdaterSweeper.newViewReference(view, this);
             onViewChanged(old, view);
         }
     }
@@ -45,7 +66,7 @@ public abstract class BaseViewUpdater implements ViewUpdater {
     @Override
     public final boolean isStarted() {
         if (getView() == null) {
-            setStarted(false);
+            releaseCollected();
         }
         return mIsStarted;
     }
@@ -61,6 +82,12 @@ public abstract class BaseViewUpdater implements ViewUpdater {
             return false;
         }
 
+        if (isPaused()) {
+            // 暂停期间不监听，恢复的时候再开始监听
+            setStarted(true);
+            return true;
+        }
+
         final boolean startImpl = startImpl(view);
         setStarted(startImpl);
 
@@ -71,27 +98,126 @@ public abstract class BaseViewUpdater implements ViewUpdater {
     public final void stop() {
         if (mIsStarted) {
             final View view = getView();
-            if (view != null) {
-                stopImpl(view);
+            if (view == null) {
+                releaseCollected();
+                return;
             }
 
+            if (!isPaused()) {
+                stopImpl(view);
+            }
             setStarted(false);
         }
     }
 
+    @Override
+    public final void setPaused(boolean paused) {
+        setPauseFlag(PAUSE_FLAG_USER, paused);
+    }
+
+    @Override
+    public final boolean isPaused() {
+        return mPauseFlags != 0;
+    }
+
+    /**
+     * 设置暂停标志，只要有一个暂停标志就处于暂停状态
+     *
+     * @param flag  暂停标志，例如{@link #PAUSE_FLAG_USER}
+     * @param pause true-添加，false-移除
+     */
+    protected final void setPauseFlag(int flag, boolean pause) {
+        final boolean oldPaused = isPaused();
+        if (pause) {
+            mPauseFlags |= flag;
+        } else {
+            mPauseFlags &= ~flag;
+        }
+
+        final boolean paused = isPaused();
+        if (oldPaused == paused) {
+            return;
+        }
+
+        if (mIsStarted) {
+            final View view = getView();
+            if (view == null) {
+                if (paused) {
+                    // 暂停之前还注册着监听
+                    onViewCollected();
+                }
+                setStarted(false);
+            } else if (paused) {
+                stopImpl(view);
+            } else if (startImpl(view)) {
+                // 恢复之后补发一次更新
+                notifyUpdatable();
+            } else {
+                setStarted(false);
+            }
+        }
+        onPausedChanged(paused);
+    }
+
     private void setStarted(boolean started) {
         if (mIsStarted != started) {
             mIsStarted = started;
+            UpdaterSweeper.onStateChanged(started);
             onStateChanged(started);
         }
     }
 
+    /**
+     * view被回收后由{@link UpdaterSweeper}调用
+     *
+     * @return 移除监听的更新对象数量
+     */
+    final int sweep(WeakReference<View> reference) {
+        if (mView != reference) {
+            return 0;
+        }
+
+        int removed = releaseCollected();
+        if (mUpdatable instanceof ViewCollectedCallback) {
+            removed += ((ViewCollectedCallback) mUpdatable).onViewCollected(this);
+        }
+        return removed;
+    }
+
+    /**
+     * view已经被回收，移除还在其他对象上的监听
+     *
+     * @return 移除监听的更新对象数量
+     */
+    private int releaseCollected() {
+        if (!mIsStarted) {
+            return 0;
+        }
+
+        final boolean registered = !isPaused();
+        if (registered) {
+            onViewCollected();
+        }
+        setStarted(false);
+        return registered ? 1 : 0;
+    }
+
     protected void onViewChanged(@Nullable View oldView, @Nullable View newView) {
     }
 
     protected void onStateChanged(boolean started) {
     }
 
+    protected void onPausedChanged(boolean paused) {
+    }
+
+    /**
+     * view已经被回收，移除注册在其他对象（例如{@link android.view.ViewTreeObserver}）上的监听，
+     * 注册在view自身上的监听会和view一起被回收，不需要处理
+     */
+    protected void onViewCollected() {
+    }
+
     /**
      * 开始监听
      *
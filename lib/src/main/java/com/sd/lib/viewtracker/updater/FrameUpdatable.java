@@ -0,0 +1,143 @@
+package com.sd.lib.viewtracker.updater;
+
+import android.view.Choreographer;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sd.lib.viewtracker.utils.ViewUtils;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * 合并同一帧内的多次更新请求，在绘制之前只执行一次更新
+ * <p>
+ * 如果设置的view已经attach，通过{@link PreDrawDispatcher}在同一次遍历的绘制之前执行，
+ * 布局变化和绘制之前触发的更新不会延迟到下一帧；
+ * 同时注册{@link Choreographer.FrameCallback}作为后备，用于在遍历之外触发、之后没有绘制的情况。
+ * 只能在主线程使用
+ */
+public class FrameUpdatable implements ViewUpdater.ScrollUpdatable {
+    private final ViewUpdater.Updatable mUpdatable;
+    private WeakReference<View> mView;
+    private boolean mIsDirty;
+    /** 是否需要完整的更新，false-只有滚动变化 */
+    private boolean mIsFullDirty;
+
+    public FrameUpdatable(@NonNull ViewUpdater.Updatable updatable) {
+        mUpdatable = updatable;
+    }
+
+    /**
+     * 设置用来获取{@link android.view.ViewTreeObserver}的view，一般是要移动的源view
+     */
+    public void setView(@Nullable View view) {
+        if (getView() != view) {
+            PreDrawDispatcher.unregister(mReceiver);
+            mView = view == null ? null : new WeakReference<>(view);
+            if (mIsDirty) {
+                registerPreDraw();
+            }
+        }
+    }
+
+    @Nullable
+    public View getView() {
+        return mView == null ? null : mView.get();
+    }
+
+    /**
+     * 标记需要更新，在绘制之前执行
+     */
+    @Override
+    public void update() {
+        mIsFullDirty = true;
+        markDirty();
+    }
+
+    /**
+     * 标记只有滚动变化，在绘制之前执行，如果同一帧内有完整的更新，则执行完整的更新
+     */
+    @Override
+    public void updateScroll() {
+        markDirty();
+    }
+
+    private void markDirty() {
+        if (!mIsDirty) {
+            mIsDirty = true;
+            registerPreDraw();
+            Choreographer.getInstance().postFrameCallback(mFrameCallback);
+        }
+    }
+
+    private void registerPreDraw() {
+        final View view = getView();
+        if (ViewUtils.isAttached(view)) {
+            PreDrawDispatcher.register(view.getViewTreeObserver(), mReceiver);
+        }
+    }
+
+    /**
+     * 是否有等待执行的更新
+     */
+    public boolean isDirty() {
+        return mIsDirty;
+    }
+
+    /**
+     * 如果有等待执行的更新，立即同步执行
+     *
+     * @return true-执行了更新
+     */
+    public boolean flush() {
+        if (mIsDirty) {
+            final boolean full = mIsFullDirty;
+            cancel();
+            dispatch(full);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 取消等待执行的更新
+     */
+    public void cancel() {
+        if (mIsDirty) {
+            mIsDirty = false;
+            mIsFullDirty = false;
+            PreDrawDispatcher.unregister(mReceiver);
+            Choreographer.getInstance().removeFrameCallback(mFrameCallback);
+        }
+    }
+
+    private void dispatch(boolean full) {
+        if (!full && mUpdatable instanceof ViewUpdater.ScrollUpdatable) {
+            ((ViewUpdater.ScrollUpdatable) mUpdatable).updateScroll();
+        } else {
+            mUpdatable.update();
+        }
+    }
+
+    private final PreDrawDispatcher.Receiver mReceiver = new PreDrawDispatcher.Receiver() {
+        @Override
+        public void onPreDraw() {
+            flush();
+        }
+    };
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (mIsDirty) {
+                final boolean full = mIsFullDirty;
+                mIsDirty = false;
+                mIsFullDirty = false;
+                PreDrawDispatcher.unregister(mReceiver);
+                dispatch(full);
+            }
+        }
+    };
+}
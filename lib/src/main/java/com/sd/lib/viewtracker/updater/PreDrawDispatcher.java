@@ -0,0 +1,206 @@
+package com.sd.lib.viewtracker.updater;
+
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 每个{@link ViewTreeObserver}只注册一个{@link ViewTreeObserver.OnPreDrawListener}，
+ * 再由它分发给所有注册的{@link Receiver}
+ * <p>
+ * 只能在主线程使用
+ */
+public final class PreDrawDispatcher {
+    private static final Map<ViewTreeObserver, PreDrawDispatcher> MAP_DISPATCHER = new WeakHashMap<>();
+    /** 连续多少次分发没有接收者之后才移除监听 */
+    private static final int UNINSTALL_EMPTY_PASSES = 60;
+
+    private final WeakReference<ViewTreeObserver> mObserver;
+
+    private Receiver[] mReceivers = new Receiver[8];
+    private int mSize;
+
+    private boolean mIsDispatching;
+    private boolean mHasPendingRemove;
+    private boolean mIsInstalled;
+    private int mEmptyPasses;
+
+    private PreDrawDispatcher(@NonNull ViewTreeObserver observer) {
+        mObserver = new WeakReference<>(observer);
+    }
+
+    /**
+     * 注册接收者，如果接收者已经注册到其他{@link ViewTreeObserver}，会先从其他{@link ViewTreeObserver}移除
+     */
+    public static void register(@NonNull ViewTreeObserver observer, @NonNull Receiver receiver) {
+        if (!observer.isAlive()) {
+            return;
+        }
+
+        PreDrawDispatcher dispatcher = MAP_DISPATCHER.get(observer);
+        if (dispatcher == null) {
+            dispatcher = new PreDrawDispatcher(observer);
+            MAP_DISPATCHER.put(observer, dispatcher);
+        }
+
+        if (receiver.mDispatcher == dispatcher) {
+            return;
+        }
+
+        unregister(receiver);
+        dispatcher.add(receiver);
+    }
+
+    /**
+     * 取消注册接收者
+     */
+    public static void unregister(@NonNull Receiver receiver) {
+        final PreDrawDispatcher dispatcher = receiver.mDispatcher;
+        if (dispatcher != null) {
+            dispatcher.remove(receiver);
+        }
+    }
+
+    /**
+     * 返回注册到某个{@link ViewTreeObserver}上的接收者数量
+     */
+    public static int getReceiverCount(@NonNull ViewTreeObserver observer) {
+        final PreDrawDispatcher dispatcher = MAP_DISPATCHER.get(observer);
+        return dispatcher == null ? 0 : dispatcher.mSize;
+    }
+
+    private void add(Receiver receiver) {
+        if (mSize == mReceivers.length) {
+            final Receiver[] array = new Receiver[mSize * 2];
+            System.arraycopy(mReceivers, 0, array, 0, mSize);
+            mReceivers = array;
+        }
+
+        receiver.mDispatcher = this;
+        receiver.mIndex = mSize;
+        mReceivers[mSize] = receiver;
+        mSize++;
+        mEmptyPasses = 0;
+
+        if (!mIsInstalled) {
+            final ViewTreeObserver observer = mObserver.get();
+            if (observer != null && observer.isAlive()) {
+                observer.addOnPreDrawListener(mListener);
+                mIsInstalled = true;
+            }
+        }
+    }
+
+    private void remove(Receiver receiver) {
+        final int index = receiver.mIndex;
+        receiver.mDispatcher = null;
+        receiver.mIndex = -1;
+
+        if (mIsDispatching) {
+            // 分发过程中只置空，分发结束后再整理数组
+            mReceivers[index] = null;
+            mHasPendingRemove = true;
+            return;
+        }
+
+        final int last = mSize - 1;
+        if (index != last) {
+            final Receiver move = mReceivers[last];
+            mReceivers[index] = move;
+            move.mIndex = index;
+        }
+        mReceivers[last] = null;
+        mSize = last;
+    }
+
+    private void compact() {
+        int size = 0;
+        for (int i = 0; i < mSize; i++) {
+            final Receiver item = mReceivers[i];
+            if (item != null) {
+                item.mIndex = size;
+                mReceivers[size] = item;
+                size++;
+            }
+        }
+        for (int i = size; i < mSize; i++) {
+            mReceivers[i] = null;
+        }
+        mSize = size;
+        mHasPendingRemove = false;
+    }
+
+    /**
+     * 连续{@link #UNINSTALL_EMPTY_PASSES}次分发都没有接收者的时候才移除监听，
+     * 避免接收者每帧取消注册再注册导致监听反复移除和添加
+     */
+    private void uninstallIfEmpty() {
+        if (mSize > 0) {
+            mEmptyPasses = 0;
+            return;
+        }
+        if (++mEmptyPasses < UNINSTALL_EMPTY_PASSES) {
+            return;
+        }
+
+        final ViewTreeObserver observer = mObserver.get();
+        if (observer != null) {
+            if (observer.isAlive()) {
+                observer.removeOnPreDrawListener(mListener);
+            }
+            if (MAP_DISPATCHER.get(observer) == this) {
+                MAP_DISPATCHER.remove(observer);
+            }
+        }
+        mIsInstalled = false;
+        mEmptyPasses = 0;
+    }
+
+    private final ViewTreeObserver.OnPreDrawListener mListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            mIsDispatching = true;
+            try {
+                // 分发过程中新注册的接收者也在这一次分发
+                for (int i = 0; i < mSize; i++) {
+                    final Receiver item = mReceivers[i];
+                    if (item != null) {
+                        item.onPreDraw();
+                    }
+                }
+            } finally {
+                // 接收者抛出异常也要整理数组，否则空位留在mSize以内
+                mIsDispatching = false;
+                if (mHasPendingRemove) {
+                    compact();
+                }
+                uninstallIfEmpty();
+            }
+            return true;
+        }
+    };
+
+    /**
+     * 接收者
+     */
+    public static abstract class Receiver {
+        private PreDrawDispatcher mDispatcher;
+        private int mIndex = -1;
+
+        /**
+         * 是否已经注册
+         */
+        public final boolean isRegistered() {
+            return mDispatcher != null;
+        }
+
+        /**
+         * 绘制之前回调
+         */
+        public abstract void onPreDraw();
+    }
+}
@@ -0,0 +1,176 @@
+package com.sd.lib.viewtracker.updater;
+
+import android.view.Choreographer;
+import android.view.animation.AnimationUtils;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 限制更新频率，两次更新之间至少间隔指定的帧数和时长，
+ * 限制期间的更新请求会在限制结束后补发一次，保证最终的位置正确
+ * <p>
+ * 时长按帧时间计算，所有处于限制期间的对象共用一个{@link Choreographer.FrameCallback}，
+ * 没有对象处于限制期间的时候不注册，只能在主线程使用
+ */
+public class ThrottleUpdatable implements ViewUpdater.ScrollUpdatable {
+    private static final List<ThrottleUpdatable> LIST_THROTTLING = new ArrayList<>();
+    private static ThrottleUpdatable[] sFrameArray = new ThrottleUpdatable[8];
+    private static boolean sFramePosted;
+    private static long sFrameCount;
+
+    private final ViewUpdater.Updatable mUpdatable;
+
+    private int mFrameInterval = 1;
+    private long mMinIntervalNanos;
+
+    /** 是否处于限制期间 */
+    private boolean mIsThrottling;
+    private int mFramesSinceUpdate;
+    private long mLastUpdateNanos;
+    private long mLastUpdateFrame;
+
+    private boolean mHasPending;
+    /** 等待补发的更新是否需要完整的更新，false-只有滚动变化 */
+    private boolean mIsPendingFull;
+
+    public ThrottleUpdatable(@NonNull ViewUpdater.Updatable updatable) {
+        mUpdatable = updatable;
+    }
+
+    /**
+     * 设置两次更新之间至少间隔的帧数，默认1，即每帧最多更新一次
+     */
+    public void setFrameInterval(int frames) {
+        mFrameInterval = Math.max(frames, 1);
+    }
+
+    /**
+     * 设置两次更新之间至少间隔的时长，默认0
+     */
+    public void setMinInterval(long millis) {
+        mMinIntervalNanos = Math.max(millis, 0) * 1000000L;
+    }
+
+    @Override
+    public void update() {
+        request(true);
+    }
+
+    @Override
+    public void updateScroll() {
+        request(false);
+    }
+
+    /**
+     * 是否有等待补发的更新
+     */
+    public boolean hasPending() {
+        return mHasPending;
+    }
+
+    /**
+     * 取消等待补发的更新，并结束限制
+     */
+    public void cancel() {
+        mHasPending = false;
+        mIsPendingFull = false;
+        if (mIsThrottling) {
+            mIsThrottling = false;
+            LIST_THROTTLING.remove(this);
+        }
+    }
+
+    private void request(boolean full) {
+        if (mIsThrottling) {
+            mHasPending = true;
+            mIsPendingFull |= full;
+            return;
+        }
+        dispatch(full);
+    }
+
+    private void dispatch(boolean full) {
+        mFramesSinceUpdate = 0;
+        mLastUpdateNanos = currentFrameTimeNanos();
+        mLastUpdateFrame = sFrameCount;
+        if (!mIsThrottling) {
+            mIsThrottling = true;
+            LIST_THROTTLING.add(this);
+            postFrame();
+        }
+
+        if (!full && mUpdatable instanceof ViewUpdater.ScrollUpdatable) {
+            ((ViewUpdater.ScrollUpdatable) mUpdatable).updateScroll();
+        } else {
+            mUpdatable.update();
+        }
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        mFramesSinceUpdate++;
+        final boolean expired = mFramesSinceUpdate >= mFrameInterval
+                && frameTimeNanos - mLastUpdateNanos >= mMinIntervalNanos;
+        if (!expired) {
+            return;
+        }
+
+        mIsThrottling = false;
+        LIST_THROTTLING.remove(this);
+        if (mHasPending) {
+            final boolean full = mIsPendingFull;
+            mHasPending = false;
+            mIsPendingFull = false;
+            dispatch(full);
+        }
+    }
+
+    /**
+     * 返回当前帧的时间，和{@link Choreographer.FrameCallback#doFrame(long)}的帧时间使用同一个时钟
+     */
+    private static long currentFrameTimeNanos() {
+        return AnimationUtils.currentAnimationTimeMillis() * 1000000L;
+    }
+
+    private static void postFrame() {
+        if (!sFramePosted) {
+            sFramePosted = true;
+            Choreographer.getInstance().postFrameCallback(FRAME_CALLBACK);
+        }
+    }
+
+    private static final Choreographer.FrameCallback FRAME_CALLBACK = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            sFramePosted = false;
+            sFrameCount++;
+
+            // 回调过程中可能有对象结束限制或者重新开始限制，遍历快照
+            final int size = LIST_THROTTLING.size();
+            if (sFrameArray.length < size) {
+                sFrameArray = new ThrottleUpdatable[size * 2];
+            }
+            final ThrottleUpdatable[] array = LIST_THROTTLING.toArray(sFrameArray);
+
+            final long now = currentFrameTimeNanos();
+            try {
+                for (int i = 0; i < size; i++) {
+                    final ThrottleUpdatable item = array[i];
+                    // 此次回调中更新的对象，这一帧不计数
+                    if (item.mIsThrottling && item.mLastUpdateFrame != sFrameCount) {
+                        item.onFrame(now);
+                    }
+                }
+            } finally {
+                for (int i = 0; i < size; i++) {
+                    array[i] = null;
+                }
+                if (!LIST_THROTTLING.isEmpty()) {
+                    postFrame();
+                }
+            }
+        }
+    };
+}
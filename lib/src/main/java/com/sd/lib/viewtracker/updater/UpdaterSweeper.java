@@ -0,0 +1,190 @@
+package com.sd.lib.viewtracker.updater;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * 清理view已经被回收的更新对象
+ * <p>
+ * {@link BaseViewUpdater}通过{@link ReferenceQueue}持有view，view被回收后，在主线程空闲的时候分批处理：
+ * 从仍然存活的{@link android.view.ViewTreeObserver}上移除监听，停止更新对象，
+ * 并通知实现了{@link ViewUpdater.ViewCollectedCallback}的更新对象，例如停止另一个view的更新对象。
+ * 只要还有没有被回收也没有被释放的view引用就在空闲的时候检查，
+ * 更新对象停止之后view才被回收的情况也能处理，只能在主线程使用
+ */
+public final class UpdaterSweeper {
+    /** 每次空闲最多处理的数量 */
+    private static final int BATCH_SIZE = 16;
+
+    private static final ReferenceQueue<View> QUEUE = new ReferenceQueue<>();
+
+    private static int sStartedCount;
+    private static int sReferenceCount;
+    private static boolean sIdlePosted;
+
+    private static long sSweptCount;
+    private static long sRemovedCount;
+    private static OnSweepListener sOnSweepListener;
+
+    private UpdaterSweeper() {
+    }
+
+    /**
+     * 设置清理监听
+     */
+    public static void setOnSweepListener(@Nullable OnSweepListener listener) {
+        sOnSweepListener = listener;
+    }
+
+    /**
+     * 立即处理所有已经被回收的view
+     *
+     * @return 移除监听的更新对象数量
+     */
+    public static int sweep() {
+        return sweepInternal(Integer.MAX_VALUE);
+    }
+
+    /**
+     * 返回处理过的已经被回收的view数量
+     */
+    public static long getSweptCount() {
+        return sSweptCount;
+    }
+
+    /**
+     * 返回移除监听的更新对象总数
+     */
+    public static long getRemovedCount() {
+        return sRemovedCount;
+    }
+
+    /**
+     * 返回当前已经开始的更新对象数量
+     */
+    public static int getStartedCount() {
+        return sStartedCount;
+    }
+
+    /**
+     * 返回还没有被回收也没有被释放的view引用数量
+     */
+    public static int getReferenceCount() {
+        return sReferenceCount;
+    }
+
+    static WeakReference<View> newViewReference(@NonNull View view, @NonNull BaseViewUpdater updater) {
+        final ViewReference reference = new ViewReference(view, updater);
+        sReferenceCount++;
+        postIdle();
+        return reference;
+    }
+
+    /**
+     * 更新对象不再使用这个引用，例如设置了新的view
+     */
+    static void releaseViewReference(@Nullable WeakReference<View> reference) {
+        if (reference instanceof ViewReference) {
+            final ViewReference viewReference = (ViewReference) reference;
+            viewReference.clear();
+            viewReference.release();
+        }
+    }
+
+    static void onStateChanged(boolean started) {
+        if (started) {
+            sStartedCount++;
+        } else if (sStartedCount > 0) {
+            sStartedCount--;
+        }
+    }
+
+    private static void postIdle() {
+        if (sIdlePosted) {
+            return;
+        }
+
+        final Looper looper = Looper.myLooper();
+        if (looper == null || looper != Looper.getMainLooper()) {
+            return;
+        }
+
+        sIdlePosted = true;
+        Looper.myQueue().addIdleHandler(IDLE_HANDLER);
+    }
+
+    private static int sweepInternal(int max) {
+        int swept = 0;
+        int removed = 0;
+        Reference<? extends View> reference;
+        while (swept < max && (reference = QUEUE.poll()) != null) {
+            swept++;
+            if (reference instanceof ViewReference) {
+                final ViewReference viewReference = (ViewReference) reference;
+                if (viewReference.release()) {
+                    removed += viewReference.updater.sweep(viewReference);
+                }
+            }
+        }
+
+        if (swept > 0) {
+            sSweptCount += swept;
+            sRemovedCount += removed;
+            if (removed > 0 && sOnSweepListener != null) {
+                sOnSweepListener.onSweep(removed);
+            }
+        }
+        return removed;
+    }
+
+    private static final MessageQueue.IdleHandler IDLE_HANDLER = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            sweepInternal(BATCH_SIZE);
+            if (sReferenceCount > 0) {
+                return true;
+            }
+            sIdlePosted = false;
+            return false;
+        }
+    };
+
+    private static final class ViewReference extends WeakReference<View> {
+        final BaseViewUpdater updater;
+        private boolean released;
+
+        ViewReference(View view, BaseViewUpdater updater) {
+            super(view, QUEUE);
+            this.updater = updater;
+        }
+
+        /**
+         * @return true-此次释放，false-已经释放过
+         */
+        boolean release() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            sReferenceCount--;
+            return true;
+        }
+    }
+
+    public interface OnSweepListener {
+        /**
+         * 清理之后回调
+         *
+         * @param removedCount 本次移除监听的更新对象数量
+         */
+        void onSweep(int removedCount);
+    }
+}
@@ -6,7 +6,38 @@ import android.view.ViewTreeObserver;
 import androidx.annotation.CallSuper;
 import androidx.annotation.NonNull;
 
+import java.lang.ref.WeakReference;
+
 public abstract class ViewTreeObserverUpdater extends BaseViewUpdater {
+    /** 窗口不可见或者失去焦点时暂停，默认不开启 */
+    private final WindowWatcher mWindowWatcher = new WindowWatcher(new WindowWatcher.Callback() {
+        @Override
+        public void onPausedChanged(boolean paused) {
+            setPauseFlag(PAUSE_FLAG_WINDOW, paused);
+        }
+    });
+
+    /** 注册了监听的{@link ViewTreeObserver}，view被回收后从这里移除监听 */
+    private WeakReference<ViewTreeObserver> mRegisteredObserver;
+
+    /**
+     * 设置窗口不可见时是否自动暂停，默认false（需要API 18以上）
+     * <p>
+     * 开启后会监听窗口焦点变化，窗口失去焦点之后，每次绘制之前检查窗口是否可见，窗口不可见时暂停，恢复可见后重新监听并更新一次
+     *
+     * @see WindowWatcher
+     */
+    public void setPauseOnWindowHidden(boolean pause) {
+        mWindowWatcher.setPauseOnWindowHidden(pause);
+    }
+
+    /**
+     * 设置窗口失去焦点时是否自动暂停，例如被其他窗口覆盖，默认false（需要API 18以上）
+     */
+    public void setPauseOnFocusLoss(boolean pause) {
+        mWindowWatcher.setPauseOnFocusLoss(pause);
+    }
+
     @CallSuper
     @Override
     protected void onStateChanged(boolean started) {
@@ -18,19 +49,20 @@ public abstract class ViewTreeObserverUpdater extends BaseViewUpdater {
                 view.addOnAttachStateChangeListener(mOnAttachStateChangeListener);
             }
         }
+        mWindowWatcher.setView(started ? view : null);
     }
 
     private final View.OnAttachStateChangeListener mOnAttachStateChangeListener = new View.OnAttachStateChangeListener() {
         @Override
         public void onViewAttachedToWindow(View v) {
-            if (v == getView()) {
+            if (v == getView() && !isPaused()) {
                 startImpl(v);
             }
         }
 
         @Override
         public void onViewDetachedFromWindow(View v) {
-            if (v == getView()) {
+            if (v == getView() && !isPaused()) {
                 stopImpl(v);
             }
         }
@@ -42,6 +74,9 @@ public abstract class ViewTreeObserverUpdater extends BaseViewUpdater {
         if (observer.isAlive()) {
             unregister(observer);
             register(observer);
+            if (mRegisteredObserver == null || mRegisteredObserver.get() != observer) {
+                mRegisteredObserver = new WeakReference<>(observer);
+            }
             return true;
         }
         return false;
@@ -55,6 +90,17 @@ public abstract class ViewTreeObserverUpdater extends BaseViewUpdater {
         }
     }
 
+    @CallSuper
+    @Override
+    protected void onViewCollected() {
+        super.onViewCollected();
+        final ViewTreeObserver observer = mRegisteredObserver == null ? null : mRegisteredObserver.get();
+        if (observer != null && observer.isAlive()) {
+            unregister(observer);
+        }
+        mRegisteredObserver = null;
+    }
+
     /**
      * 注册监听
      */
@@ -64,4 +110,4 @@ public abstract class ViewTreeObserverUpdater extends BaseViewUpdater {
      * 取消注册监听
      */
     protected abstract void unregister(@NonNull ViewTreeObserver observer);
-}
\ No newline at end of file
+}
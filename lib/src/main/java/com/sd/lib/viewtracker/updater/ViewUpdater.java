@@ -2,6 +2,7 @@ package com.sd.lib.viewtracker.updater;
 
 import android.view.View;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 public interface ViewUpdater {
@@ -45,10 +46,44 @@ public interface ViewUpdater {
      */
     void stop();
 
+    /**
+     * 设置是否暂停，暂停期间移除监听但是保持开始的状态，恢复后重新监听并通知更新对象一次
+     * <p>
+     * 默认不支持暂停，什么都不做，{@link BaseViewUpdater}实现了暂停
+     */
+    default void setPaused(boolean paused) {
+    }
+
+    /**
+     * 是否已经暂停
+     *
+     * @return true-已经暂停
+     */
+    default boolean isPaused() {
+        return false;
+    }
+
     interface Updatable {
         /**
          * 更新回调
          */
         void update();
     }
+
+    interface ScrollUpdatable extends Updatable {
+        /**
+         * 只有滚动变化的时候回调
+         */
+        void updateScroll();
+    }
+
+    interface ViewCollectedCallback {
+        /**
+         * 更新对象的view被回收之后回调，此时更新对象已经停止，见{@link UpdaterSweeper}
+         *
+         * @param updater view被回收的更新对象
+         * @return 因此停止的其他更新对象数量
+         */
+        int onViewCollected(@NonNull ViewUpdater updater);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,206 @@
+package com.sd.lib.viewtracker.updater;
+
+import android.os.Build;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sd.lib.viewtracker.utils.ViewUtils;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * 监听view所在窗口的可见状态和焦点，根据设置决定是否需要暂停（需要API 18以上）
+ * <p>
+ * 只有开启了{@link #setPauseOnWindowHidden(boolean)}或者{@link #setPauseOnFocusLoss(boolean)}才会添加监听。
+ * 窗口可见性没有公开的监听，窗口失去焦点或者暂停期间通过{@link PreDrawDispatcher}在绘制之前检查
+ * <p>
+ * 只能在主线程使用
+ */
+public final class WindowWatcher {
+    private final Callback mCallback;
+
+    private boolean mPauseOnWindowHidden;
+    private boolean mPauseOnFocusLoss;
+
+    private WeakReference<View> mView;
+    private boolean mIsAttachListening;
+    private WeakReference<ViewTreeObserver> mObserver;
+
+    private boolean mIsPaused;
+
+    public WindowWatcher(@NonNull Callback callback) {
+        mCallback = callback;
+    }
+
+    /**
+     * 设置窗口不可见时是否暂停，默认false
+     */
+    public void setPauseOnWindowHidden(boolean pause) {
+        if (mPauseOnWindowHidden != pause) {
+            mPauseOnWindowHidden = pause;
+            refresh();
+        }
+    }
+
+    /**
+     * 设置窗口失去焦点时是否暂停，例如被其他窗口覆盖，默认false
+     */
+    public void setPauseOnFocusLoss(boolean pause) {
+        if (mPauseOnFocusLoss != pause) {
+            mPauseOnFocusLoss = pause;
+            refresh();
+        }
+    }
+
+    /**
+     * 设置要监听窗口的view，null-停止监听并取消暂停
+     */
+    public void setView(@Nullable View view) {
+        if (view != null && getView() == view) {
+            return;
+        }
+
+        // view被回收之后也要移除窗口上的监听
+        release();
+        mView = view == null ? null : new WeakReference<>(view);
+        refresh();
+    }
+
+    @Nullable
+    public View getView() {
+        return mView == null ? null : mView.get();
+    }
+
+    /**
+     * 当前是否需要暂停
+     */
+    public boolean isPaused() {
+        return mIsPaused;
+    }
+
+    private boolean isEnabled() {
+        return (mPauseOnWindowHidden || mPauseOnFocusLoss) && Build.VERSION.SDK_INT >= 18;
+    }
+
+    private void refresh() {
+        final View view = getView();
+        if (view == null || !isEnabled()) {
+            release();
+            return;
+        }
+
+        if (!mIsAttachListening) {
+            view.addOnAttachStateChangeListener(mOnAttachStateChangeListener);
+            mIsAttachListening = true;
+        }
+
+        if (ViewUtils.isAttached(view)) {
+            install(view);
+            check();
+        } else {
+            uninstall();
+        }
+    }
+
+    /**
+     * 移除所有监听，并取消暂停
+     */
+    private void release() {
+        final View view = getView();
+        if (view != null && mIsAttachListening) {
+            view.removeOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        }
+        mIsAttachListening = false;
+        uninstall();
+        setPaused(false);
+    }
+
+    private void install(View view) {
+        final ViewTreeObserver observer = view.getViewTreeObserver();
+        final ViewTreeObserver old = mObserver == null ? null : mObserver.get();
+        if (old == observer) {
+            return;
+        }
+
+        uninstall();
+        if (observer.isAlive()) {
+            observer.addOnWindowFocusChangeListener(mOnWindowFocusChangeListener);
+            mObserver = new WeakReference<>(observer);
+        }
+    }
+
+    private void uninstall() {
+        final ViewTreeObserver observer = mObserver == null ? null : mObserver.get();
+        if (observer != null && observer.isAlive() && Build.VERSION.SDK_INT >= 18) {
+            observer.removeOnWindowFocusChangeListener(mOnWindowFocusChangeListener);
+        }
+        mObserver = null;
+        PreDrawDispatcher.unregister(mProbeReceiver);
+    }
+
+    /**
+     * 检查窗口状态，决定是否暂停
+     */
+    private void check() {
+        final View view = getView();
+        final ViewTreeObserver observer = mObserver == null ? null : mObserver.get();
+        if (view == null || observer == null || !observer.isAlive()) {
+            return;
+        }
+
+        final boolean focused = view.hasWindowFocus();
+        final boolean hidden = view.getWindowVisibility() != View.VISIBLE;
+        final boolean pause = (mPauseOnWindowHidden && hidden) || (mPauseOnFocusLoss && !focused);
+
+        // 失去焦点或者暂停期间在绘制之前检查
+        if (pause || !focused) {
+            PreDrawDispatcher.register(observer, mProbeReceiver);
+        } else {
+            PreDrawDispatcher.unregister(mProbeReceiver);
+        }
+        setPaused(pause);
+    }
+
+    private void setPaused(boolean paused) {
+        if (mIsPaused != paused) {
+            mIsPaused = paused;
+            mCallback.onPausedChanged(paused);
+        }
+    }
+
+    private final View.OnAttachStateChangeListener mOnAttachStateChangeListener = new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View v) {
+            refresh();
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v) {
+            uninstall();
+        }
+    };
+
+    private final ViewTreeObserver.OnWindowFocusChangeListener mOnWindowFocusChangeListener = new ViewTreeObserver.OnWindowFocusChangeListener() {
+        @Override
+        public void onWindowFocusChanged(boolean hasFocus) {
+            check();
+        }
+    };
+
+    private final PreDrawDispatcher.Receiver mProbeReceiver = new PreDrawDispatcher.Receiver() {
+        @Override
+        public void onPreDraw() {
+            check();
+        }
+    };
+
+    public interface Callback {
+        /**
+         * 是否需要暂停的状态变化回调
+         */
+        void onPausedChanged(boolean paused);
+    }
+}
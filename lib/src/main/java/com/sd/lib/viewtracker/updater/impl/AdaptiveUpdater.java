@@ -0,0 +1,265 @@
+package com.sd.lib.viewtracker.updater.impl;
+
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.view.animation.Animation;
+
+import androidx.annotation.NonNull;
+
+import com.sd.lib.viewtracker.updater.PreDrawDispatcher;
+import com.sd.lib.viewtracker.updater.ViewTreeObserverUpdater;
+import com.sd.lib.viewtracker.utils.ViewUtils;
+
+/**
+ * 默认通过{@link View.OnLayoutChangeListener}和{@link ViewTreeObserver.OnScrollChangedListener}来实现更新，
+ * 检测到view在移动（位置和上一次不同，或者view和祖先布局有正在执行的动画）时切换到逐帧更新，连续指定帧数没有移动后切换回来
+ * <p>
+ * 平移，缩放等变换动画通常伴随着布局或者滚动开始，所以每次触发后会在接下来的{@link #PROBE_FRAMES}帧绘制之前比较view在窗口中的位置，
+ * 位置变化了也切换到逐帧更新。普通模式下没有触发的时候不会逐帧检查。
+ * 逐帧检查通过{@link PreDrawDispatcher}实现，同一个{@link ViewTreeObserver}上的所有对象共用一个{@link ViewTreeObserver.OnPreDrawListener}
+ */
+public class AdaptiveUpdater extends ViewTreeObserverUpdater {
+    /** 默认连续多少帧没有移动后切换回来 */
+    public static final int DEFAULT_SETTLE_FRAMES = 10;
+    /** 普通模式下每次触发后检查多少帧 */
+    public static final int PROBE_FRAMES = 3;
+
+    private int mSettleFrames = DEFAULT_SETTLE_FRAMES;
+
+    private final int[] mLocation = {0, 0};
+    private int mLastX;
+    private int mLastY;
+    private boolean mHasLocation;
+
+    /** 是否处于逐帧更新模式 */
+    private boolean mIsFrameMode;
+    private int mStillFrames;
+    /** 普通模式下剩余的检查帧数 */
+    private int mProbeFrames;
+
+    private long mModeStartTime;
+    private long mIdleModeTime;
+    private long mFrameModeTime;
+    private int mEscalateCount;
+
+    /**
+     * 设置连续多少帧没有移动后切换回来，默认{@link #DEFAULT_SETTLE_FRAMES}
+     */
+    public void setSettleFrames(int frames) {
+        mSettleFrames = Math.max(frames, 1);
+    }
+
+    /**
+     * 是否处于逐帧更新模式
+     */
+    public boolean isFrameMode() {
+        return mIsFrameMode;
+    }
+
+    /**
+     * 返回切换到逐帧更新模式的次数
+     */
+    public int getEscalateCount() {
+        return mEscalateCount;
+    }
+
+    /**
+     * 返回在普通模式下的时长（毫秒）
+     */
+    public long getIdleModeTime() {
+        return mIdleModeTime + (isStarted() && !mIsFrameMode ? SystemClock.uptimeMillis() - mModeStartTime : 0);
+    }
+
+    /**
+     * 返回在逐帧更新模式下的时长（毫秒）
+     */
+    public long getFrameModeTime() {
+        return mFrameModeTime + (isStarted() && mIsFrameMode ? SystemClock.uptimeMillis() - mModeStartTime : 0);
+    }
+
+    @Override
+    protected void onStateChanged(boolean started) {
+        super.onStateChanged(started);
+        if (started) {
+            mModeStartTime = SystemClock.uptimeMillis();
+            mHasLocation = false;
+
+            // 记录开始时的位置，之后的第一次变换也可以被检测到
+            final View view = getView();
+            if (view != null && ViewUtils.isAttached(view)) {
+                view.getLocationInWindow(mLocation);
+                mLastX = mLocation[0];
+                mLastY = mLocation[1];
+                mHasLocation = true;
+            }
+        } else {
+            accumulateModeTime();
+            mIsFrameMode = false;
+            mProbeFrames = 0;
+        }
+    }
+
+    @Override
+    protected final void register(@NonNull ViewTreeObserver observer) {
+        final View view = getView();
+        if (view != null) {
+            view.addOnLayoutChangeListener(mOnLayoutChangeListener);
+        }
+        observer.addOnScrollChangedListener(mOnScrollChangedListener);
+        if (mIsFrameMode || mProbeFrames > 0) {
+            PreDrawDispatcher.register(observer, mReceiver);
+        }
+    }
+
+    @Override
+    protected final void unregister(@NonNull ViewTreeObserver observer) {
+        final View view = getView();
+        if (view != null) {
+            view.removeOnLayoutChangeListener(mOnLayoutChangeListener);
+        }
+        observer.removeOnScrollChangedListener(mOnScrollChangedListener);
+        PreDrawDispatcher.unregister(mReceiver);
+    }
+
+    private void onTrigger() {
+        if (mIsFrameMode) {
+            // 逐帧更新模式下由绘制之前的回调更新
+            return;
+        }
+
+        notifyUpdatable();
+        if (isMoving()) {
+            setFrameMode(true);
+        } else {
+            // 触发之后可能紧接着开始变换动画，检查接下来的几帧
+            mProbeFrames = PROBE_FRAMES;
+            registerReceiver();
+        }
+    }
+
+    /**
+     * 普通模式下触发后的几帧，绘制之前检查位置，只有位置变化了才更新
+     */
+    private void onProbe() {
+        if (isMoving()) {
+            notifyUpdatable();
+            setFrameMode(true);
+            return;
+        }
+
+        mProbeFrames--;
+        if (mProbeFrames <= 0) {
+            mProbeFrames = 0;
+            PreDrawDispatcher.unregister(mReceiver);
+        }
+    }
+
+    private void registerReceiver() {
+        final View view = getView();
+        if (view != null) {
+            PreDrawDispatcher.register(view.getViewTreeObserver(), mReceiver);
+        }
+    }
+
+    private void onFrame() {
+        notifyUpdatable();
+        if (isMoving()) {
+            mStillFrames = 0;
+        } else {
+            mStillFrames++;
+            if (mStillFrames >= mSettleFrames) {
+                setFrameMode(false);
+            }
+        }
+    }
+
+    private void setFrameMode(boolean frameMode) {
+        if (mIsFrameMode == frameMode) {
+            return;
+        }
+
+        accumulateModeTime();
+        mIsFrameMode = frameMode;
+        mStillFrames = 0;
+        mProbeFrames = 0;
+
+        if (frameMode) {
+            mEscalateCount++;
+            registerReceiver();
+        } else {
+            PreDrawDispatcher.unregister(mReceiver);
+        }
+    }
+
+    private void accumulateModeTime() {
+        final long now = SystemClock.uptimeMillis();
+        if (mIsFrameMode) {
+            mFrameModeTime += now - mModeStartTime;
+        } else {
+            mIdleModeTime += now - mModeStartTime;
+        }
+        mModeStartTime = now;
+    }
+
+    /**
+     * view的位置和上一次检测的时候不同，或者view和祖先布局有正在执行的动画
+     */
+    private boolean isMoving() {
+        final View view = getView();
+        if (view == null) {
+            return false;
+        }
+
+        view.getLocationInWindow(mLocation);
+        final boolean moved = mHasLocation && (mLocation[0] != mLastX || mLocation[1] != mLastY);
+        mLastX = mLocation[0];
+        mLastY = mLocation[1];
+        mHasLocation = true;
+
+        return moved || isAnimating(view);
+    }
+
+    private static boolean isAnimating(View view) {
+        View current = view;
+        while (true) {
+            final Animation animation = current.getAnimation();
+            if (animation != null && !animation.hasEnded()) {
+                return true;
+            }
+
+            final ViewParent parent = current.getParent();
+            if (parent instanceof View) {
+                current = (View) parent;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    private final View.OnLayoutChangeListener mOnLayoutChangeListener = new View.OnLayoutChangeListener() {
+        @Override
+        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom) {
+            onTrigger();
+        }
+    };
+
+    private final ViewTreeObserver.OnScrollChangedListener mOnScrollChangedListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            onTrigger();
+        }
+    };
+
+    private final PreDrawDispatcher.Receiver mReceiver = new PreDrawDispatcher.Receiver() {
+        @Override
+        public void onPreDraw() {
+            if (mIsFrameMode) {
+                onFrame();
+            } else {
+                onProbe();
+            }
+        }
+    };
+}
@@ -0,0 +1,30 @@
+package com.sd.lib.viewtracker.updater.impl;
+
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+import com.sd.lib.viewtracker.updater.ViewTreeObserverUpdater;
+
+/**
+ * 通过{@link ViewTreeObserver.OnScrollChangedListener}来实现更新，
+ * 如果更新对象是{@link ScrollUpdatable}，则回调{@link ScrollUpdatable#updateScroll()}
+ */
+public class OnScrollChangedUpdater extends ViewTreeObserverUpdater {
+    @Override
+    protected final void register(@NonNull ViewTreeObserver observer) {
+        observer.addOnScrollChangedListener(mListener);
+    }
+
+    @Override
+    protected final void unregister(@NonNull ViewTreeObserver observer) {
+        observer.removeOnScrollChangedListener(mListener);
+    }
+
+    private final ViewTreeObserver.OnScrollChangedListener mListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            notifyUpdatableScroll();
+        }
+    };
+}
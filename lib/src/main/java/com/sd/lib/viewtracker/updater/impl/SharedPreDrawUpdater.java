@@ -0,0 +1,34 @@
+package com.sd.lib.viewtracker.updater.impl;
+
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+
+import com.sd.lib.viewtracker.updater.PreDrawDispatcher;
+import com.sd.lib.viewtracker.updater.ViewTreeObserverUpdater;
+import com.sd.lib.viewtracker.utils.ViewUtils;
+
+/**
+ * 通过{@link PreDrawDispatcher}来实现更新，同一个{@link ViewTreeObserver}上的所有对象共用一个{@link ViewTreeObserver.OnPreDrawListener}
+ */
+public class SharedPreDrawUpdater extends ViewTreeObserverUpdater {
+    @Override
+    protected final void register(@NonNull ViewTreeObserver observer) {
+        // 未attach的view拿到的是临时的ViewTreeObserver，等attach之后再注册
+        if (ViewUtils.isAttached(getView())) {
+            PreDrawDispatcher.register(observer, mReceiver);
+        }
+    }
+
+    @Override
+    protected final void unregister(@NonNull ViewTreeObserver observer) {
+        PreDrawDispatcher.unregister(mReceiver);
+    }
+
+    private final PreDrawDispatcher.Receiver mReceiver = new PreDrawDispatcher.Receiver() {
+        @Override
+        public void onPreDraw() {
+            notifyUpdatable();
+        }
+    };
+}
@@ -0,0 +1,31 @@
+package com.sd.lib.viewtracker.utils;
+
+import android.os.Build;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+
+/**
+ * view相关的工具方法
+ */
+public final class ViewUtils {
+    private ViewUtils() {
+    }
+
+    /**
+     * view是否已经attach到窗口
+     *
+     * @return false-view为null或者未attach
+     */
+    public static boolean isAttached(@Nullable View view) {
+        if (view == null) {
+            return false;
+        }
+
+        if (Build.VERSION.SDK_INT >= 19) {
+            return view.isAttachedToWindow();
+        } else {
+            return view.getWindowToken() != null;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.sd.lib.viewtracker.updater;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sd.lib.viewtracker.ViewTracker;
+import com.sd.lib.viewtracker.ext.FPositionTracker;
+import com.sd.lib.viewtracker.updater.impl.OnGlobalLayoutChangeUpdater;
+import com.sd.lib.viewtracker.updater.impl.OnLayoutChangeUpdater;
+import com.sd.lib.viewtracker.updater.impl.OnPreDrawUpdater;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 构造指定数量和深度的追踪，逐帧移动目标，统计每种更新对象每帧的更新次数，回调次数，耗时和分配的内存
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class UpdaterFrameBudgetTest {
+    private static final int TRACKER_COUNT = 50;
+    private static final int DEPTH = 8;
+    private static final int FRAME_COUNT = 60;
+    private static final long FRAME_MILLIS = 16;
+
+    /** 每个追踪每帧允许的最大更新次数 */
+    private static final int MAX_UPDATE_PER_FRAME = 2;
+
+    private Activity mActivity;
+    private FrameLayout mMovingContainer;
+    private FrameLayout mOverlay;
+
+    private final List<View> mListSource = new ArrayList<>();
+    private final List<View> mListTarget = new ArrayList<>();
+
+    private long mUpdateCount;
+    private long mCallbackCount;
+
+    @Before
+    public void setUp() {
+        ShadowChoreographer.setFrameInterval(TimeUnit.MILLISECONDS.toNanos(FRAME_MILLIS));
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+
+        final FrameLayout root = new FrameLayout(mActivity);
+        mMovingContainer = new FrameLayout(mActivity);
+        root.addView(mMovingContainer, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mOverlay = new FrameLayout(mActivity);
+        root.addView(mOverlay, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        mActivity.setContentView(root);
+
+        buildTargets();
+        idleFrame();
+    }
+
+    @Test
+    public void testOnLayoutChangeUpdater() {
+        assertBudget(runRound(OnLayoutChangeUpdater.class));
+    }
+
+    @Test
+    public void testOnGlobalLayoutChangeUpdater() {
+        assertBudget(runRound(OnGlobalLayoutChangeUpdater.class));
+    }
+
+    @Test
+    public void testOnPreDrawUpdater() {
+        assertBudget(runRound(OnPreDrawUpdater.class));
+    }
+
+    /**
+     * 构造指定深度的布局，每个叶子节点作为一个目标
+     */
+    private void buildTargets() {
+        for (int i = 0; i < TRACKER_COUNT; i++) {
+            ViewGroup parent = mMovingContainer;
+            for (int d = 0; d < DEPTH; d++) {
+                final FrameLayout child = new FrameLayout(mActivity);
+                final FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+                params.leftMargin = (i % 10) * 8;
+                params.topMargin = (i / 10) * 8;
+                parent.addView(child, params);
+                parent = child;
+            }
+
+            final View target = new View(mActivity);
+            parent.addView(target, new FrameLayout.LayoutParams(20, 20));
+
+            final View source = new View(mActivity);
+            mOverlay.addView(source, new FrameLayout.LayoutParams(10, 10));
+
+            mListSource.add(source);
+            mListTarget.add(target);
+        }
+    }
+
+    private Report runRound(final Class<? extends ViewUpdater> updaterClass) {
+        final List<FPositionTracker> listTracker = new ArrayList<>();
+        for (int i = 0; i < TRACKER_COUNT; i++) {
+            final FPositionTracker tracker = new FPositionTracker() {
+                @NonNull
+                @Override
+                protected ViewUpdater createTargetUpdater() {
+                    return new CountingUpdater(newUpdater(updaterClass));
+                }
+            };
+            tracker.setCallback(mCallback);
+            tracker.setSource(mListSource.get(i));
+            tracker.setTarget(mListTarget.get(i));
+            tracker.start();
+            listTracker.add(tracker);
+        }
+        idleFrame();
+
+        mUpdateCount = 0;
+        mCallbackCount = 0;
+
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        final long allocStart = getAllocatedBytes(threadBean);
+        final long timeStart = System.nanoTime();
+
+        for (int frame = 0; frame < FRAME_COUNT; frame++) {
+            // 每一帧移动所有的目标，触发目标的布局变化
+            final int margin = frame % 2 == 0 ? 1 : 0;
+            for (View target : mListTarget) {
+                final FrameLayout.LayoutParams params = (FrameLayout.LayoutParams) target.getLayoutParams();
+                params.leftMargin = margin;
+                target.setLayoutParams(params);
+            }
+            idleFrame();
+        }
+
+        final long nanos = System.nanoTime() - timeStart;
+        final long allocEnd = getAllocatedBytes(threadBean);
+
+        for (FPositionTracker item : listTracker) {
+            item.stop();
+        }
+
+        final Report report = new Report(updaterClass.getSimpleName(), mUpdateCount, mCallbackCount,
+                nanos, allocStart < 0 ? -1 : allocEnd - allocStart);
+        return report;
+    }
+
+    private static void assertBudget(Report report) {
+        final long frames = (long) TRACKER_COUNT * FRAME_COUNT;
+        assertTrue(report + " missed frames", report.updateCount >= frames);
+        assertTrue(report + " missed callbacks", report.callbackCount >= frames);
+        assertTrue(report + " over update budget", report.updateCount <= frames * MAX_UPDATE_PER_FRAME);
+    }
+
+    private static void idleFrame() {
+        ShadowLooper.idleMainLooper(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static ViewUpdater newUpdater(Class<? extends ViewUpdater> clazz) {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static long getAllocatedBytes(ThreadMXBean bean) {
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private final ViewTracker.Callback mCallback = new ViewTracker.Callback() {
+        @Override
+        public void onUpdate(int x, int y, @NonNull View source, @NonNull View target) {
+            mCallbackCount++;
+        }
+    };
+
+    private static final class Report {
+        final String name;
+        final long updateCount;
+        final long callbackCount;
+        final long nanos;
+        final long allocBytes;
+
+        Report(String name, long updateCount, long callbackCount, long nanos, long allocBytes) {
+            this.name = name;
+            this.updateCount = updateCount;
+            this.callbackCount = callbackCount;
+            this.nanos = nanos;
+            this.allocBytes = allocBytes;
+        }
+
+        @Override
+        public String toString() {
+            return name
+                    + " trackers:" + TRACKER_COUNT
+                    + " depth:" + DEPTH
+                    + " frames:" + FRAME_COUNT
+                    + " update/frame:" + ((float) updateCount / FRAME_COUNT)
+                    + " callback/frame:" + ((float) callbackCount / FRAME_COUNT)
+                    + " us/frame:" + (nanos / 1000 / FRAME_COUNT)
+                    + " alloc bytes/frame:" + (allocBytes < 0 ? -1 : allocBytes / FRAME_COUNT);
+        }
+    }
+
+    /**
+     * 统计更新对象通知了多少次{@link ViewUpdater.Updatable#update()}
+     */
+    private final class CountingUpdater implements ViewUpdater {
+        private final ViewUpdater mUpdater;
+
+        CountingUpdater(ViewUpdater updater) {
+            mUpdater = updater;
+        }
+
+        @Override
+        public void setUpdatable(@Nullable final Updatable updatable) {
+            if (updatable == null) {
+                mUpdater.setUpdatable(null);
+                return;
+            }
+
+            mUpdater.setUpdatable(new ScrollUpdatable() {
+                @Override
+                public void update() {
+                    mUpdateCount++;
+                    updatable.update();
+                }
+
+                @Override
+                public void updateScroll() {
+                    mUpdateCount++;
+                    if (updatable instanceof ScrollUpdatable) {
+                        ((ScrollUpdatable) updatable).updateScroll();
+                    } else {
+                        updatable.update();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void notifyUpdatable() {
+            mUpdater.notifyUpdatable();
+        }
+
+        @Nullable
+        @Override
+        public View getView() {
+            return mUpdater.getView();
+        }
+
+        @Override
+        public void setView(@Nullable View view) {
+            mUpdater.setView(view);
+        }
+
+        @Override
+        public boolean isStarted() {
+            return mUpdater.isStarted();
+        }
+
+        @Override
+        public boolean start() {
+            return mUpdater.start();
+        }
+
+        @Override
+        public void stop() {
+            mUpdater.stop();
+        }
+
+        @Override
+        public void setPaused(boolean paused) {
+            mUpdater.setPaused(paused);
+        }
+
+        @Override
+        public boolean isPaused() {
+            return mUpdater.isPaused();
+        }
+    }
+}